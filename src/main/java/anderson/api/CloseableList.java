@@ -0,0 +1,6 @@
+package anderson.api;
+
+import java.io.Closeable;
+
+public interface CloseableList<E> extends List<E>, Closeable {
+}
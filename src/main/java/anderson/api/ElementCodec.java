@@ -0,0 +1,29 @@
+package anderson.api;
+
+import java.nio.ByteBuffer;
+
+public interface ElementCodec<E> {
+    /**
+     * Returns the number of bytes an element occupies once encoded.
+     *
+     * @param element   element to be measured.
+     * @return          encoded size in bytes.
+     */
+    int size(E element);
+
+    /**
+     * Encodes an element into the buffer, writing exactly size(element) bytes.
+     *
+     * @param element   element to be encoded.
+     * @param buffer    buffer with at least size(element) bytes remaining.
+     */
+    void write(E element, ByteBuffer buffer);
+
+    /**
+     * Decodes a single element previously written by write method.
+     *
+     * @param buffer    buffer positioned at the start of an encoded element.
+     * @return          decoded element.
+     */
+    E read(ByteBuffer buffer);
+}
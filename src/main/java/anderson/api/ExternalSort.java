@@ -0,0 +1,30 @@
+package anderson.api;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+public interface ExternalSort<E> {
+    /**
+     * Sorts elements which do not necessarily fit in memory and streams them to a consumer in ascending
+     * order of the comparator.
+     *
+     * @param input         elements to be sorted.
+     * @param comparator    comparator to use on each element.
+     * @param sink          consumer receiving elements in ascending order.
+     * @throws IOException  if spilling runs to disk or reading them back fails.
+     */
+    void sort(Iterator<E> input, Comparator<E> comparator, Consumer<E> sink) throws IOException;
+
+    /**
+     * Sorts elements which do not necessarily fit in memory and loads the result, in ascending order
+     * of the comparator, into a read-only list backed by a memory-mapped file.
+     *
+     * @param input         elements to be sorted.
+     * @param comparator    comparator to use on each element.
+     * @return              read-only list of sorted elements; closing it deletes the backing file.
+     * @throws IOException  if spilling runs to disk or mapping the result fails.
+     */
+    CloseableList<E> sortToList(Iterator<E> input, Comparator<E> comparator) throws IOException;
+}
@@ -0,0 +1,26 @@
+package anderson.api;
+
+import java.util.Comparator;
+import java.util.concurrent.Executor;
+
+public interface IncrementalSort<E> extends ArraySort<E> {
+    /**
+     * Prepares sorting of an array which is then advanced by calling SortTask.step.
+     *
+     * @param array         array to be sorted in place.
+     * @param comparator    comparator to use on each element of array.
+     * @return              task performing the sort step by step.
+     */
+    SortTask<E> begin(E[] array, Comparator<E> comparator);
+
+    /**
+     * Sorts an array on an executor, submitting one step at a time so other tasks can run in between.
+     *
+     * @param array         array to be sorted in place.
+     * @param comparator    comparator to use on each element of array.
+     * @param executor      executor running the steps.
+     * @param budget        maximum number of elements to be moved per step.
+     * @return              task performing the sort; its result completes once the array is sorted.
+     */
+    SortTask<E> sortAsync(E[] array, Comparator<E> comparator, Executor executor, int budget);
+}
@@ -0,0 +1,39 @@
+package anderson.api;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface SortTask<E> {
+    /**
+     * Performs a bounded amount of sorting work and returns. Implementations may work in indivisible units
+     * and exceed the budget by at most one such unit, which they document.
+     *
+     * @param budget    number of elements to be moved during this call.
+     * @return          true if more work remains, false if sorting is finished or cancelled.
+     */
+    boolean step(int budget);
+
+    /**
+     * Returns share of work already done.
+     *
+     * @return      number between 0 and 1.
+     */
+    double getProgress();
+
+    /**
+     *
+     * @return      true if sorting is finished or cancelled.
+     */
+    boolean isDone();
+
+    /**
+     * Stops sorting. The array is left partially sorted and the result completes exceptionally.
+     */
+    void cancel();
+
+    /**
+     * Returns future completed with the sorted array once the last step is done.
+     *
+     * @return      future of the sorted array.
+     */
+    CompletableFuture<E[]> getResult();
+}
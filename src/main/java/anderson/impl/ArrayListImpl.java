@@ -2,7 +2,6 @@ package anderson.impl;
 
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.Objects;
 import java.util.OptionalInt;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -46,6 +45,11 @@ public class ArrayListImpl<E> implements List<E> {
 
     private ArraySort<E> sortingAlgorithm;
 
+    /**
+     * Set while the list sits in a ListPool cache, so the pool can reject a second release.
+     */
+    boolean pooled;
+
     /**
      *  Default constructor which will init arraylist with default capacity.
      *
@@ -146,7 +150,12 @@ public class ArrayListImpl<E> implements List<E> {
 
     @Override
     public void clear() {
-        array = getEmptyArray(capacity);
+        if (array.length < capacity) {
+            array = getEmptyArray(capacity);
+        } else {
+            Arrays.fill(array, 0, size, null);
+        }
+
         size = DEFAULT_SIZE;
     }
 
@@ -156,7 +165,7 @@ public class ArrayListImpl<E> implements List<E> {
             throw new IllegalArgumentException(ARRAY_CANNOT_CONTAIN_NULL_VALUES_EXCEPTION_MESSAGE);
         }
 
-        boolean isPresent = Arrays.stream(array).filter(Objects::nonNull).anyMatch(e -> e.equals(element));
+        boolean isPresent = Arrays.stream(array, 0, size).anyMatch(e -> e.equals(element));
 
         return isPresent;
     }
@@ -211,11 +220,9 @@ public class ArrayListImpl<E> implements List<E> {
 
         E element = array[index];
 
-        E[] left = Arrays.copyOfRange(array, 0, index);
-        E[] right = Arrays.copyOfRange(array, index, size);
-
-        array = (E[]) Stream.of(left, right).flatMap(chunk -> Stream.of(chunk)).toArray();
+        System.arraycopy(array, index + 1, array, index, size - index - 1);
         size -= 1;
+        array[size] = null;
 
         return element;
     }
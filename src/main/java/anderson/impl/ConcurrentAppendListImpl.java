@@ -0,0 +1,455 @@
+package anderson.impl;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import anderson.api.List;
+
+/**
+ * Append-only list for many concurrent producers.
+ *
+ * Each producer thread collects elements in its own batch. A full batch (or an explicit flush) reserves a
+ * range of slots with a CAS on the reserved size, copies the batch into pre-allocated segments and publishes
+ * the range. Readers only see the published prefix, i.e. slots whose every predecessor has been written too.
+ */
+public class ConcurrentAppendListImpl<E> implements List<E> {
+    private static final int DEFAULT_BATCH_SIZE = 64;
+    /**
+     * First segment holds 2^FIRST_SEGMENT_SHIFT elements, every following one twice as many as the previous.
+     */
+    private static final int FIRST_SEGMENT_SHIFT = 10;
+    /**
+     * Largest segment holds 2^29 elements, which caps the list at 2^30 - 2^FIRST_SEGMENT_SHIFT elements.
+     */
+    private static final int SEGMENT_COUNT = 30 - FIRST_SEGMENT_SHIFT;
+    private static final int MAX_SIZE = (1 << (FIRST_SEGMENT_SHIFT + SEGMENT_COUNT)) - (1 << FIRST_SEGMENT_SHIFT);
+    /**
+     * Placeholder of a segment claimed by the thread which allocates it.
+     */
+    private static final Object[] ALLOCATING = new Object[0];
+    private final String ARRAY_CANNOT_CONTAIN_NULL_VALUES_EXCEPTION_MESSAGE = "Array cannot contain null values";
+    private final String METHOD_WITH_NEGATIVE_INDEX_EXCEPTION_MESSAGE = "Cannot call method with negative index; index = %d";
+    private final String METHOD_WITH_INDEX_GREATER_THAN_CURRENT_SIZE_EXCEPTION_MESSAGE = "Cannot call method with index greater than current size; size = %d";
+    private final String NON_POSITIVE_BATCH_SIZE_EXCEPTION_MESSAGE = "Batch size must be positive; batchSize = %d";
+    private final String LIST_IS_FULL_EXCEPTION_MESSAGE = "Cannot reserve %d more slots; size = %d";
+    private final String APPEND_ONLY_LIST_EXCEPTION_MESSAGE = "Concurrent list is append-only";
+
+    /**
+     * Number of slots handed out to producers, including ones still being written.
+     */
+    private final AtomicInteger reserved = new AtomicInteger();
+
+    /**
+     * Length of the prefix whose every slot has been written.
+     */
+    private final AtomicInteger published = new AtomicInteger();
+
+    /**
+     * Written but not yet published ranges, keyed by their start and mapped to their end.
+     */
+    private final ConcurrentHashMap<Integer, Integer> completed = new ConcurrentHashMap<>();
+
+    private final AtomicReferenceArray<Object[]> segments = new AtomicReferenceArray<>(SEGMENT_COUNT);
+
+    private final int batchSize;
+
+    private final ThreadLocal<Batch> batches;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition publishedCondition = lock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    /**
+     *  Default constructor which will init list with default batch size.
+     */
+    public ConcurrentAppendListImpl() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     *  Constructor which will init list with user-specified batch size.
+     *
+     * @param batchSize     number of elements a producer collects before publishing them.
+     */
+    public ConcurrentAppendListImpl(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(String.format(NON_POSITIVE_BATCH_SIZE_EXCEPTION_MESSAGE, batchSize));
+        }
+
+        this.batchSize = batchSize;
+        this.batches = ThreadLocal.withInitial(() -> new Batch(batchSize));
+        this.segments.set(0, new Object[1 << FIRST_SEGMENT_SHIFT]);
+        this.segments.set(1, new Object[1 << (FIRST_SEGMENT_SHIFT + 1)]);
+    }
+
+    /**
+     * Adds non-null element to the calling thread's batch. The element becomes visible to readers once
+     * the batch fills up or flush is called by the same thread. If the list is full, the batch is
+     * discarded and IllegalStateException is thrown.
+     *
+     * @param   element element to be inserted.
+     * @return  always true.
+     */
+    @Override
+    public boolean add(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException(ARRAY_CANNOT_CONTAIN_NULL_VALUES_EXCEPTION_MESSAGE);
+        }
+
+        Batch batch = batches.get();
+        batch.elements[batch.count++] = element;
+
+        if (batch.count == batchSize) {
+            publish(batch);
+        }
+
+        return true;
+    }
+
+    /**
+     * Publishes elements collected by the calling thread. Producers must flush before they finish.
+     */
+    public void flush() {
+        Batch batch = batches.get();
+
+        if (batch.count > 0) {
+            publish(batch);
+        }
+    }
+
+    @Override
+    public void add(int index, E element) {
+        throw new UnsupportedOperationException(APPEND_ONLY_LIST_EXCEPTION_MESSAGE);
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException(APPEND_ONLY_LIST_EXCEPTION_MESSAGE);
+    }
+
+    @Override
+    public boolean contains(E element) {
+        return indexOf(element) != -1;
+    }
+
+    @Override
+    public E get(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException(String.format(METHOD_WITH_NEGATIVE_INDEX_EXCEPTION_MESSAGE, index));
+        } else if (index >= published.get()) {
+            throw new IndexOutOfBoundsException(String.format(METHOD_WITH_INDEX_GREATER_THAN_CURRENT_SIZE_EXCEPTION_MESSAGE, index));
+        }
+
+        return slot(index);
+    }
+
+    @Override
+    public int indexOf(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException(ARRAY_CANNOT_CONTAIN_NULL_VALUES_EXCEPTION_MESSAGE);
+        }
+
+        int size = published.get();
+
+        for (int i = 0; i < size; i++) {
+            if (element.equals(slot(i))) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return      number of published elements.
+     */
+    @Override
+    public int size() {
+        return published.get();
+    }
+
+    @Override
+    public boolean remove(E element) {
+        throw new UnsupportedOperationException(APPEND_ONLY_LIST_EXCEPTION_MESSAGE);
+    }
+
+    @Override
+    public E remove(int index) {
+        throw new UnsupportedOperationException(APPEND_ONLY_LIST_EXCEPTION_MESSAGE);
+    }
+
+    @Override
+    public void sort(Comparator<E> comparator) {
+        throw new UnsupportedOperationException(APPEND_ONLY_LIST_EXCEPTION_MESSAGE);
+    }
+
+    /**
+     * @return      total length of allocated segments.
+     */
+    @Override
+    public int getCapacity() {
+        long capacity = 0;
+
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            Object[] segment = segments.get(i);
+
+            if (segment != null) {
+                capacity += segment.length;
+            }
+        }
+
+        return (int) Math.min(capacity, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Object[] toArray() {
+        int size = published.get();
+        Object[] elements = new Object[size];
+
+        for (int i = 0; i < size; i++) {
+            elements[i] = slot(i);
+        }
+
+        return elements;
+    }
+
+    /**
+     * Passes published elements starting from a given position to a consumer without blocking.
+     *
+     * @param consumer  receiver of elements.
+     * @param from      position of the first element to be passed, usually the value returned by previous call.
+     * @return          position following the last passed element.
+     */
+    public int drainTo(Consumer<? super E> consumer, int from) {
+        if (from < 0) {
+            throw new IndexOutOfBoundsException(String.format(METHOD_WITH_NEGATIVE_INDEX_EXCEPTION_MESSAGE, from));
+        }
+
+        int size = published.get();
+
+        for (int i = from; i < size; i++) {
+            consumer.accept(slot(i));
+        }
+
+        return Math.max(from, size);
+    }
+
+    /**
+     * Waits until at least given number of elements is published.
+     *
+     * @param size      number of elements to wait for.
+     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     */
+    public void await(int size) throws InterruptedException {
+        if (published.get() >= size) {
+            return;
+        }
+
+        waiters.incrementAndGet();
+        lock.lock();
+
+        try {
+            while (published.get() < size) {
+                publishedCondition.await();
+            }
+        } finally {
+            lock.unlock();
+            waiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Waits until at least given number of elements is published or the timeout elapses.
+     *
+     * @param size      number of elements to wait for.
+     * @param timeout   maximum time to wait.
+     * @param unit      time unit of the timeout.
+     * @return          true if enough elements are published and false if the timeout elapsed.
+     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     */
+    public boolean await(int size, long timeout, TimeUnit unit) throws InterruptedException {
+        if (published.get() >= size) {
+            return true;
+        }
+
+        long nanos = unit.toNanos(timeout);
+
+        waiters.incrementAndGet();
+        lock.lock();
+
+        try {
+            while (published.get() < size) {
+                if (nanos <= 0) {
+                    return false;
+                }
+
+                nanos = publishedCondition.awaitNanos(nanos);
+            }
+
+            return true;
+        } finally {
+            lock.unlock();
+            waiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Reserves slots for a batch, writes it and advances the published prefix as far as possible.
+     */
+    private void publish(Batch batch) {
+        int count = batch.count;
+        int start;
+
+        try {
+            start = reserve(count);
+        } catch (RuntimeException | Error e) {
+            // nothing was reserved, so the batch is dropped and the thread may keep adding
+            Arrays.fill(batch.elements, 0, count, null);
+            batch.count = 0;
+
+            throw e;
+        }
+
+        for (int i = 0; i < count; i++) {
+            int segment = segmentOf(start + i);
+            segments.get(segment)[offsetOf(start + i, segment)] = batch.elements[i];
+            batch.elements[i] = null;
+        }
+
+        batch.count = 0;
+        completed.put(start, start + count);
+
+        advance();
+        allocateAhead(segmentOf(start + count - 1) + 1);
+    }
+
+    /**
+     * Reserves a range of slots. Capacity is checked and segments covered by the range are ensured before
+     * the CAS, so a failure never leaves a reserved range which cannot be published. The segments are
+     * usually there already, allocated ahead by an earlier publish.
+     *
+     * @return      position of the first reserved slot.
+     */
+    private int reserve(int count) {
+        int start;
+
+        do {
+            start = reserved.get();
+
+            if (count > MAX_SIZE - start) {
+                throw new IllegalStateException(String.format(LIST_IS_FULL_EXCEPTION_MESSAGE, count, start));
+            }
+
+            for (int segment = segmentOf(start); segment <= segmentOf(start + count - 1); segment++) {
+                ensureSegment(segment);
+            }
+        } while (!reserved.compareAndSet(start, start + count));
+
+        return start;
+    }
+
+    /**
+     * Allocates the segment following a published range, unless it exists or another thread claimed it,
+     * so that producers rarely find the segment they reserve into missing.
+     */
+    private void allocateAhead(int segment) {
+        if (segment < SEGMENT_COUNT && segments.get(segment) == null
+                && segments.compareAndSet(segment, null, ALLOCATING)) {
+            allocateSegment(segment);
+        }
+    }
+
+    /**
+     * Returns a segment, allocating it if missing. Only the thread which claims the segment allocates it;
+     * others wait for it to finish.
+     */
+    private Object[] ensureSegment(int segment) {
+        Object[] array;
+
+        while ((array = segments.get(segment)) == null || array == ALLOCATING) {
+            if (array == null && segments.compareAndSet(segment, null, ALLOCATING)) {
+                return allocateSegment(segment);
+            }
+
+            Thread.yield();
+        }
+
+        return array;
+    }
+
+    private Object[] allocateSegment(int segment) {
+        Object[] array;
+
+        try {
+            array = new Object[1 << (FIRST_SEGMENT_SHIFT + segment)];
+        } catch (RuntimeException | Error e) {
+            // release the claim so another thread may try again
+            segments.set(segment, null);
+
+            throw e;
+        }
+
+        segments.set(segment, array);
+
+        return array;
+    }
+
+    /**
+     * Moves the published prefix over completed ranges. Only the thread removing the range starting at the
+     * current prefix may move it, so the prefix never skips a range still being written.
+     */
+    private void advance() {
+        boolean moved = false;
+        Integer end;
+
+        while ((end = completed.remove(published.get())) != null) {
+            published.set(end);
+            moved = true;
+        }
+
+        if (moved && waiters.get() > 0) {
+            lock.lock();
+
+            try {
+                publishedCondition.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private E slot(int index) {
+        int segment = segmentOf(index);
+
+        return (E) segments.get(segment)[offsetOf(index, segment)];
+    }
+
+    private static int segmentOf(int index) {
+        int position = index + (1 << FIRST_SEGMENT_SHIFT);
+
+        return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(position) - FIRST_SEGMENT_SHIFT;
+    }
+
+    private static int offsetOf(int index, int segment) {
+        return index + (1 << FIRST_SEGMENT_SHIFT) - (1 << (FIRST_SEGMENT_SHIFT + segment));
+    }
+
+    /**
+     * Elements collected by a single producer thread.
+     */
+    private static class Batch {
+        private final Object[] elements;
+        private int count;
+
+        private Batch(int size) {
+            this.elements = new Object[size];
+        }
+    }
+}
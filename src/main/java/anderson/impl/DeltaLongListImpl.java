@@ -0,0 +1,372 @@
+package anderson.impl;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.LongConsumer;
+
+import anderson.api.List;
+
+/**
+ * Compressed append-only list of non-decreasing longs, such as timestamps.
+ *
+ * Elements are stored in blocks of 128. A sealed block keeps its first value and the smallest delta between
+ * neighbours in a header; every other delta is stored as its distance from that smallest delta, bit-packed
+ * with the width of the largest one. Regular intervals therefore cost next to nothing and jittery ones only
+ * a few bits. Appends go to an uncompressed open block which is packed once it fills up.
+ */
+public class DeltaLongListImpl implements List<Long> {
+    private static final int BLOCK_SHIFT = 7;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int DEFAULT_BLOCK_CAPACITY = 8;
+    private final String ARRAY_CANNOT_CONTAIN_NULL_VALUES_EXCEPTION_MESSAGE = "Array cannot contain null values";
+    private final String METHOD_WITH_NEGATIVE_INDEX_EXCEPTION_MESSAGE = "Cannot call method with negative index; index = %d";
+    private final String METHOD_WITH_INDEX_GREATER_THAN_CURRENT_SIZE_EXCEPTION_MESSAGE = "Cannot call method with index greater than current size; size = %d";
+    private final String DECREASING_VALUE_EXCEPTION_MESSAGE = "Cannot add value smaller than the last one; value = %d, last = %d";
+    private final String APPEND_ONLY_LIST_EXCEPTION_MESSAGE = "Delta list is append-only and sorted";
+
+    /**
+     * First value of every sealed block.
+     */
+    private long[] blockBases;
+
+    /**
+     * Smallest delta between neighbours of every sealed block.
+     */
+    private long[] blockMinDeltas;
+
+    /**
+     * Position of every sealed block's packed deltas within packed, in words.
+     */
+    private int[] blockOffsets;
+
+    /**
+     * Bit width of every sealed block's packed deltas.
+     */
+    private byte[] blockBits;
+
+    private int sealedBlocks;
+
+    private long[] packed;
+
+    private int packedWords;
+
+    /**
+     * Uncompressed block receiving appends.
+     */
+    private final long[] openBlock = new long[BLOCK_SIZE];
+
+    private int openCount;
+
+    /**
+     * Most recently appended value.
+     */
+    private long last;
+
+    /**
+     *  Default constructor which will init an empty list.
+     */
+    public DeltaLongListImpl() {
+        this.blockBases = new long[DEFAULT_BLOCK_CAPACITY];
+        this.blockMinDeltas = new long[DEFAULT_BLOCK_CAPACITY];
+        this.blockOffsets = new int[DEFAULT_BLOCK_CAPACITY];
+        this.blockBits = new byte[DEFAULT_BLOCK_CAPACITY];
+        this.packed = new long[DEFAULT_BLOCK_CAPACITY * BLOCK_SIZE / Long.SIZE];
+    }
+
+    /**
+     * Appends a value which must not be smaller than the last one.
+     *
+     * @param   element element to be inserted.
+     * @return  always true.
+     */
+    @Override
+    public boolean add(Long element) {
+        if (element == null) {
+            throw new IllegalArgumentException(ARRAY_CANNOT_CONTAIN_NULL_VALUES_EXCEPTION_MESSAGE);
+        }
+
+        if (size() > 0 && element < last) {
+            throw new IllegalArgumentException(String.format(DECREASING_VALUE_EXCEPTION_MESSAGE, element, last));
+        }
+
+        openBlock[openCount++] = element;
+        last = element;
+
+        if (openCount == BLOCK_SIZE) {
+            seal();
+        }
+
+        return true;
+    }
+
+    @Override
+    public void add(int index, Long element) {
+        throw new UnsupportedOperationException(APPEND_ONLY_LIST_EXCEPTION_MESSAGE);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(packed, 0, packedWords, 0);
+        sealedBlocks = 0;
+        packedWords = 0;
+        openCount = 0;
+    }
+
+    @Override
+    public boolean contains(Long element) {
+        return indexOf(element) != -1;
+    }
+
+    @Override
+    public Long get(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException(String.format(METHOD_WITH_NEGATIVE_INDEX_EXCEPTION_MESSAGE, index));
+        } else if (index >= size()) {
+            throw new IndexOutOfBoundsException(String.format(METHOD_WITH_INDEX_GREATER_THAN_CURRENT_SIZE_EXCEPTION_MESSAGE, index));
+        }
+
+        int block = index >>> BLOCK_SHIFT;
+        int position = index & (BLOCK_SIZE - 1);
+
+        if (block == sealedBlocks) {
+            return openBlock[position];
+        }
+
+        long value = blockBases[block];
+        long minDelta = blockMinDeltas[block];
+        int bits = blockBits[block];
+        long bitPosition = (long) blockOffsets[block] * Long.SIZE;
+
+        for (int i = 0; i < position; i++) {
+            value += minDelta + unpack(bitPosition, bits);
+            bitPosition += bits;
+        }
+
+        return value;
+    }
+
+    /**
+     * Finds the first occurrence of a value by binary search over block minima followed by decoding one block.
+     */
+    @Override
+    public int indexOf(Long element) {
+        if (element == null) {
+            throw new IllegalArgumentException(ARRAY_CANNOT_CONTAIN_NULL_VALUES_EXCEPTION_MESSAGE);
+        }
+
+        long value = element;
+        int blocks = sealedBlocks + (openCount > 0 ? 1 : 0);
+        int low = 0;
+        int high = blocks - 1;
+
+        // last block whose first value is smaller than the searched one
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+
+            if (blockBase(middle) < value) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        if (high >= 0) {
+            long[] values = decodeBlock(high);
+            int count = blockLength(high);
+
+            for (int i = 0; i < count && values[i] <= value; i++) {
+                if (values[i] == value) {
+                    return (high << BLOCK_SHIFT) + i;
+                }
+            }
+        }
+
+        if (low < blocks && blockBase(low) == value) {
+            return low << BLOCK_SHIFT;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return (sealedBlocks << BLOCK_SHIFT) + openCount;
+    }
+
+    @Override
+    public boolean remove(Long element) {
+        throw new UnsupportedOperationException(APPEND_ONLY_LIST_EXCEPTION_MESSAGE);
+    }
+
+    @Override
+    public Long remove(int index) {
+        throw new UnsupportedOperationException(APPEND_ONLY_LIST_EXCEPTION_MESSAGE);
+    }
+
+    /**
+     * Not supported: elements are always kept in ascending order.
+     */
+    @Override
+    public void sort(Comparator<Long> comparator) {
+        throw new UnsupportedOperationException(APPEND_ONLY_LIST_EXCEPTION_MESSAGE);
+    }
+
+    /**
+     * @return      number of elements which fit in allocated block headers.
+     */
+    @Override
+    public int getCapacity() {
+        return (blockBases.length + 1) << BLOCK_SHIFT;
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] elements = new Object[size()];
+        int[] index = { 0 };
+
+        forEach(value -> elements[index[0]++] = value);
+
+        return elements;
+    }
+
+    /**
+     * Passes all elements to a consumer in order, decoding each block once.
+     *
+     * @param consumer      receiver of elements.
+     */
+    public void forEach(LongConsumer consumer) {
+        for (int block = 0; block < sealedBlocks; block++) {
+            long[] values = decodeBlock(block);
+
+            for (long value : values) {
+                consumer.accept(value);
+            }
+        }
+
+        for (int i = 0; i < openCount; i++) {
+            consumer.accept(openBlock[i]);
+        }
+    }
+
+    /**
+     * Approximates memory used by headers, packed deltas and the open block.
+     *
+     * @return      size of the list's arrays in bytes.
+     */
+    public long getSizeInBytes() {
+        long headers = (long) blockBases.length * (2 * Long.BYTES + Integer.BYTES + Byte.BYTES);
+
+        return headers + (long) packed.length * Long.BYTES + (long) openBlock.length * Long.BYTES;
+    }
+
+    private long blockBase(int block) {
+        return block == sealedBlocks ? openBlock[0] : blockBases[block];
+    }
+
+    private int blockLength(int block) {
+        return block == sealedBlocks ? openCount : BLOCK_SIZE;
+    }
+
+    private long[] decodeBlock(int block) {
+        if (block == sealedBlocks) {
+            return openBlock;
+        }
+
+        long[] values = new long[BLOCK_SIZE];
+        long minDelta = blockMinDeltas[block];
+        int bits = blockBits[block];
+        long bitPosition = (long) blockOffsets[block] * Long.SIZE;
+
+        values[0] = blockBases[block];
+
+        for (int i = 1; i < BLOCK_SIZE; i++) {
+            values[i] = values[i - 1] + minDelta + unpack(bitPosition, bits);
+            bitPosition += bits;
+        }
+
+        return values;
+    }
+
+    /**
+     * Packs the full open block and appends its header.
+     *
+     * Deltas are treated as unsigned, so blocks spanning more than Long.MAX_VALUE still round-trip.
+     */
+    private void seal() {
+        long minDelta = -1L;
+        long maxDelta = 0;
+
+        for (int i = 1; i < BLOCK_SIZE; i++) {
+            long delta = openBlock[i] - openBlock[i - 1];
+
+            if (Long.compareUnsigned(delta, minDelta) < 0) {
+                minDelta = delta;
+            }
+            if (Long.compareUnsigned(delta, maxDelta) > 0) {
+                maxDelta = delta;
+            }
+        }
+
+        int bits = Long.SIZE - Long.numberOfLeadingZeros(maxDelta - minDelta);
+        int words = (int) (((long) (BLOCK_SIZE - 1) * bits + Long.SIZE - 1) / Long.SIZE);
+
+        if (sealedBlocks == blockBases.length) {
+            int capacity = sealedBlocks * 2;
+
+            blockBases = Arrays.copyOf(blockBases, capacity);
+            blockMinDeltas = Arrays.copyOf(blockMinDeltas, capacity);
+            blockOffsets = Arrays.copyOf(blockOffsets, capacity);
+            blockBits = Arrays.copyOf(blockBits, capacity);
+        }
+        if (packedWords + words > packed.length) {
+            packed = Arrays.copyOf(packed, Math.max(packed.length * 2, packedWords + words));
+        }
+
+        blockBases[sealedBlocks] = openBlock[0];
+        blockMinDeltas[sealedBlocks] = minDelta;
+        blockOffsets[sealedBlocks] = packedWords;
+        blockBits[sealedBlocks] = (byte) bits;
+
+        long bitPosition = (long) packedWords * Long.SIZE;
+
+        for (int i = 1; i < BLOCK_SIZE; i++) {
+            pack(openBlock[i] - openBlock[i - 1] - minDelta, bitPosition, bits);
+            bitPosition += bits;
+        }
+
+        packedWords += words;
+        sealedBlocks += 1;
+        openCount = 0;
+    }
+
+    private void pack(long value, long bitPosition, int bits) {
+        if (bits == 0) {
+            return;
+        }
+
+        int word = (int) (bitPosition >>> 6);
+        int shift = (int) (bitPosition & (Long.SIZE - 1));
+
+        packed[word] |= value << shift;
+
+        if (shift + bits > Long.SIZE) {
+            packed[word + 1] |= value >>> (Long.SIZE - shift);
+        }
+    }
+
+    private long unpack(long bitPosition, int bits) {
+        if (bits == 0) {
+            return 0;
+        }
+
+        int word = (int) (bitPosition >>> 6);
+        int shift = (int) (bitPosition & (Long.SIZE - 1));
+        long value = packed[word] >>> shift;
+
+        if (shift + bits > Long.SIZE) {
+            value |= packed[word + 1] << (Long.SIZE - shift);
+        }
+
+        return bits == Long.SIZE ? value : value & ((1L << bits) - 1);
+    }
+}
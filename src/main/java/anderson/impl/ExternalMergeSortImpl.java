@@ -0,0 +1,562 @@
+package anderson.impl;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+import anderson.api.ArraySort;
+import anderson.api.CloseableList;
+import anderson.api.ElementCodec;
+import anderson.api.ExternalSort;
+
+public class ExternalMergeSortImpl<E> implements ExternalSort<E> {
+    private static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+    private static final int DEFAULT_FAN_IN = 16;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_RUN_LENGTH = 1024;
+    /**
+     * Length prefix written in front of every encoded element.
+     */
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES;
+    /**
+     * Rough per-element heap overhead (object header and array slot) on top of the encoded size.
+     */
+    private static final int ELEMENT_OVERHEAD = 16;
+    private static final String TEMP_FILE_PREFIX = "anderson-sort-";
+    private static final String ARRAY_CANNOT_CONTAIN_NULL_VALUES_EXCEPTION_MESSAGE = "Array cannot contain null values";
+    private static final String NON_POSITIVE_MEMORY_BUDGET_EXCEPTION_MESSAGE = "Memory budget must be positive; memoryBudget = %d";
+    private static final String FAN_IN_TOO_SMALL_EXCEPTION_MESSAGE = "Fan-in must be at least 2; fanIn = %d";
+    private static final String TRUNCATED_RUN_EXCEPTION_MESSAGE = "Run file is truncated: %s";
+    private static final String UNSORTED_RUN_EXCEPTION_MESSAGE = "Run sorter returned elements out of order; length = %d";
+
+    private final ElementCodec<E> codec;
+
+    /**
+     * In-memory sorter used to sort each run before it is spilled.
+     */
+    private final ArraySort<E> runSort;
+
+    /**
+     * Approximate number of bytes a single run may occupy in memory.
+     */
+    private final long memoryBudget;
+
+    /**
+     * Maximum number of runs merged at once. More runs are merged in several passes.
+     */
+    private final int fanIn;
+
+    private final Path spillDirectory;
+
+    /**
+     *  Constructor which will init sorter with default memory budget, fan-in and system temp directory.
+     *  Runs are sorted by the iterative IncrementalMergeSortImpl, whose stack depth does not grow with run length.
+     *
+     * @param codec     codec used to spill elements to disk.
+     */
+    public ExternalMergeSortImpl(ElementCodec<E> codec) {
+        this(codec, new IncrementalMergeSortImpl<>(), DEFAULT_MEMORY_BUDGET, DEFAULT_FAN_IN,
+                Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     *  Constructor which will init sorter with user-specified settings.
+     *
+     * @param codec             codec used to spill elements to disk.
+     * @param runSort           in-memory sorter applied to each run; may sort in either direction.
+     * @param memoryBudget      approximate number of bytes a single run may occupy.
+     * @param fanIn             maximum number of runs merged at once.
+     * @param spillDirectory    directory for temporary run files.
+     */
+    public ExternalMergeSortImpl(ElementCodec<E> codec, ArraySort<E> runSort, long memoryBudget, int fanIn,
+                                 Path spillDirectory) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException(String.format(NON_POSITIVE_MEMORY_BUDGET_EXCEPTION_MESSAGE, memoryBudget));
+        }
+        if (fanIn < 2) {
+            throw new IllegalArgumentException(String.format(FAN_IN_TOO_SMALL_EXCEPTION_MESSAGE, fanIn));
+        }
+
+        this.codec = codec;
+        this.runSort = runSort;
+        this.memoryBudget = memoryBudget;
+        this.fanIn = fanIn;
+        this.spillDirectory = spillDirectory;
+    }
+
+    @Override
+    public void sort(Iterator<E> input, Comparator<E> comparator, Consumer<E> sink) throws IOException {
+        ArrayDeque<Path> runs = createRuns(input, comparator);
+
+        try {
+            reduceRuns(runs, comparator);
+            merge(runs, comparator, sink::accept);
+        } finally {
+            deleteAll(runs);
+        }
+    }
+
+    @Override
+    public CloseableList<E> sortToList(Iterator<E> input, Comparator<E> comparator) throws IOException {
+        ArrayDeque<Path> runs = createRuns(input, comparator);
+        Path output = null;
+
+        try {
+            reduceRuns(runs, comparator);
+            output = newTempFile();
+
+            final long[][] index = { new long[INITIAL_RUN_LENGTH] };
+            final int[] count = { 0 };
+            RunWriter<E> writer = new RunWriter<>(output, codec);
+
+            try {
+                merge(runs, comparator, element -> {
+                    if (count[0] % MappedListImpl.INDEX_INTERVAL == 0) {
+                        int sample = count[0] / MappedListImpl.INDEX_INTERVAL;
+
+                        if (sample == index[0].length) {
+                            index[0] = Arrays.copyOf(index[0], index[0].length * 2);
+                        }
+                        index[0][sample] = writer.position();
+                    }
+
+                    count[0] += 1;
+                    writer.write(element);
+                });
+            } finally {
+                writer.close();
+            }
+
+            int samples = (count[0] + MappedListImpl.INDEX_INTERVAL - 1) / MappedListImpl.INDEX_INTERVAL;
+
+            return new MappedListImpl<>(output, codec, Arrays.copyOf(index[0], samples), count[0],
+                    writer.getMaxRecordSize());
+        } catch (IOException | RuntimeException e) {
+            if (output != null) {
+                Files.deleteIfExists(output);
+            }
+
+            throw e;
+        } finally {
+            deleteAll(runs);
+        }
+    }
+
+    /**
+     * Splits input into runs fitting the memory budget, sorts each run in memory and spills it to disk.
+     *
+     * @param input         elements to be sorted.
+     * @param comparator    comparator to use on each element.
+     * @return              spilled runs, each sorted in comparator order.
+     */
+    private ArrayDeque<Path> createRuns(Iterator<E> input, Comparator<E> comparator) throws IOException {
+        ArrayDeque<Path> runs = new ArrayDeque<>();
+        Object[] buffer = new Object[INITIAL_RUN_LENGTH];
+        int count = 0;
+        long used = 0;
+
+        try {
+            while (input.hasNext()) {
+                E element = input.next();
+
+                if (element == null) {
+                    throw new IllegalArgumentException(ARRAY_CANNOT_CONTAIN_NULL_VALUES_EXCEPTION_MESSAGE);
+                }
+
+                long cost = (long) codec.size(element) + RECORD_HEADER_SIZE + ELEMENT_OVERHEAD;
+
+                if (count > 0 && used + cost > memoryBudget) {
+                    spill(runs, buffer, count, comparator);
+                    Arrays.fill(buffer, 0, count, null);
+                    count = 0;
+                    used = 0;
+                }
+                if (count == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+
+                buffer[count++] = element;
+                used += cost;
+            }
+
+            if (count > 0) {
+                spill(runs, buffer, count, comparator);
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteAll(runs);
+
+            throw e;
+        }
+
+        return runs;
+    }
+
+    /**
+     * Sorts a single run with the in-memory sorter and writes it to a temporary file.
+     */
+    private void spill(ArrayDeque<Path> runs, Object[] buffer, int count, Comparator<E> comparator) throws IOException {
+        E[] sorted = runSort.sort((E[]) Arrays.copyOf(buffer, count), comparator);
+
+        normalizeRun(sorted, comparator);
+
+        Path file = newTempFile();
+        runs.add(file);
+
+        try (RunWriter<E> writer = new RunWriter<>(file, codec)) {
+            for (E element : sorted) {
+                writer.write(element);
+            }
+        }
+    }
+
+    /**
+     * Merges runs in groups of fan-in until a single final pass is enough.
+     */
+    private void reduceRuns(ArrayDeque<Path> runs, Comparator<E> comparator) throws IOException {
+        while (runs.size() > fanIn) {
+            ArrayDeque<Path> merged = new ArrayDeque<>();
+
+            try {
+                while (!runs.isEmpty()) {
+                    ArrayDeque<Path> group = new ArrayDeque<>();
+
+                    while (group.size() < fanIn && !runs.isEmpty()) {
+                        group.add(runs.poll());
+                    }
+
+                    if (group.size() == 1) {
+                        merged.add(group.poll());
+                        continue;
+                    }
+
+                    Path file = newTempFile();
+                    merged.add(file);
+
+                    try (RunWriter<E> writer = new RunWriter<>(file, codec)) {
+                        merge(group, comparator, writer::write);
+                    } finally {
+                        deleteAll(group);
+                    }
+                }
+            } finally {
+                runs.addAll(merged);
+            }
+        }
+    }
+
+    /**
+     * Implements k-way merge of sorted runs through a loser tree.
+     *
+     * @param files         run files to be merged.
+     * @param comparator    comparator the runs are sorted by.
+     * @param sink          receiver of merged elements.
+     */
+    private void merge(ArrayDeque<Path> files, Comparator<E> comparator, RecordSink<E> sink) throws IOException {
+        RunReader<E>[] readers = (RunReader<E>[]) new RunReader<?>[files.size()];
+
+        try {
+            int i = 0;
+            for (Path file : files) {
+                readers[i++] = new RunReader<>(file, codec);
+            }
+
+            LoserTree<E> tree = new LoserTree<>(readers, comparator);
+
+            while (tree.hasNext()) {
+                sink.accept(tree.next());
+            }
+        } finally {
+            for (RunReader<E> reader : readers) {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Brings a run returned by the in-memory sorter into comparator order. Sorters are not trusted to agree
+     * on direction (QuickArraySortImpl sorts descending), so a non-increasing run is reversed in place.
+     *
+     * @throws IllegalStateException if the run is sorted in neither direction.
+     */
+    private static <E> void normalizeRun(E[] run, Comparator<E> comparator) {
+        boolean ascending = true;
+        boolean descending = true;
+
+        for (int i = 1; i < run.length && (ascending || descending); i++) {
+            int order = comparator.compare(run[i - 1], run[i]);
+
+            ascending &= order <= 0;
+            descending &= order >= 0;
+        }
+
+        if (ascending) {
+            return;
+        }
+        if (!descending) {
+            throw new IllegalStateException(String.format(UNSORTED_RUN_EXCEPTION_MESSAGE, run.length));
+        }
+
+        for (int left = 0, right = run.length - 1; left < right; left++, right--) {
+            E element = run[left];
+            run[left] = run[right];
+            run[right] = element;
+        }
+    }
+
+    private Path newTempFile() throws IOException {
+        return Files.createTempFile(spillDirectory, TEMP_FILE_PREFIX, ".run");
+    }
+
+    private static void deleteAll(ArrayDeque<Path> files) throws IOException {
+        while (!files.isEmpty()) {
+            Files.deleteIfExists(files.poll());
+        }
+    }
+
+    /**
+     * Receiver of merged elements which is allowed to write to disk.
+     */
+    private interface RecordSink<E> {
+        void accept(E element) throws IOException;
+    }
+
+    /**
+     * Writes length-prefixed encoded elements to a file through a reusable buffer.
+     */
+    static class RunWriter<E> implements Closeable {
+        private final FileChannel channel;
+        private final ElementCodec<E> codec;
+        private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private long position;
+        private int maxRecordSize;
+
+        RunWriter(Path file, ElementCodec<E> codec) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.codec = codec;
+        }
+
+        void write(E element) throws IOException {
+            int size = codec.size(element);
+            int recordSize = RECORD_HEADER_SIZE + size;
+
+            if (buffer.remaining() < recordSize) {
+                flush();
+            }
+            if (buffer.capacity() < recordSize) {
+                buffer = ByteBuffer.allocate(recordSize);
+            }
+
+            buffer.putInt(size);
+            codec.write(element, buffer);
+
+            position += recordSize;
+            maxRecordSize = Math.max(maxRecordSize, recordSize);
+        }
+
+        /**
+         * @return      file offset at which the next record will be written.
+         */
+        long position() {
+            return position;
+        }
+
+        int getMaxRecordSize() {
+            return maxRecordSize;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Reads length-prefixed encoded elements from a file through a buffered channel.
+     */
+    static class RunReader<E> implements Closeable {
+        private final Path file;
+        private final FileChannel channel;
+        private final ElementCodec<E> codec;
+        private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        RunReader(Path file, ElementCodec<E> codec) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.codec = codec;
+            this.buffer.flip();
+        }
+
+        /**
+         * @return      next element of the run or null if the run is exhausted.
+         */
+        E read() throws IOException {
+            if (!fill(RECORD_HEADER_SIZE)) {
+                if (buffer.hasRemaining()) {
+                    throw new EOFException(String.format(TRUNCATED_RUN_EXCEPTION_MESSAGE, file));
+                }
+
+                return null;
+            }
+
+            int size = buffer.getInt();
+
+            if (!fill(size)) {
+                throw new EOFException(String.format(TRUNCATED_RUN_EXCEPTION_MESSAGE, file));
+            }
+
+            int limit = buffer.limit();
+            int end = buffer.position() + size;
+
+            buffer.limit(end);
+            E element = codec.read(buffer);
+            buffer.limit(limit);
+            buffer.position(end);
+
+            return element;
+        }
+
+        /**
+         * Makes sure at least given number of bytes is buffered unless the end of file is reached.
+         */
+        private boolean fill(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return true;
+            }
+
+            if (buffer.capacity() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(bytes);
+                larger.put(buffer);
+                buffer = larger;
+            } else {
+                buffer.compact();
+            }
+
+            while (buffer.position() < bytes && channel.read(buffer) != -1) {
+                // keep reading until enough bytes are buffered
+            }
+
+            buffer.flip();
+
+            return buffer.remaining() >= bytes;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Tournament tree keeping the loser of every match in internal nodes, so replacing the winner
+     * costs log(k) comparisons against a single path.
+     */
+    static class LoserTree<E> {
+        private final RunReader<E>[] readers;
+        private final Comparator<E> order;
+        private final E[] heads;
+        /**
+         * Internal nodes 1..k-1 hold losers, node 0 holds the overall winner. Leaf i is node k + i.
+         */
+        private final int[] tree;
+
+        LoserTree(RunReader<E>[] readers, Comparator<E> order) throws IOException {
+            this.readers = readers;
+            this.order = order;
+            this.heads = (E[]) new Object[readers.length];
+            this.tree = new int[Math.max(readers.length, 1)];
+
+            for (int i = 0; i < readers.length; i++) {
+                heads[i] = readers[i].read();
+            }
+
+            if (readers.length > 0) {
+                tree[0] = build(1);
+            }
+        }
+
+        boolean hasNext() {
+            return heads.length > 0 && heads[tree[0]] != null;
+        }
+
+        E next() throws IOException {
+            int winner = tree[0];
+            E element = heads[winner];
+
+            heads[winner] = readers[winner].read();
+
+            for (int node = (winner + heads.length) / 2; node > 0; node /= 2) {
+                if (beats(tree[node], winner)) {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+
+            tree[0] = winner;
+
+            return element;
+        }
+
+        private int build(int node) {
+            if (node >= heads.length) {
+                return node - heads.length;
+            }
+
+            int left = build(2 * node);
+            int right = build(2 * node + 1);
+
+            if (beats(left, right)) {
+                tree[node] = right;
+
+                return left;
+            }
+
+            tree[node] = left;
+
+            return right;
+        }
+
+        /**
+         * Exhausted runs lose every match; ties go to the earlier run to keep the merge stable.
+         */
+        private boolean beats(int a, int b) {
+            if (heads[a] == null) {
+                return false;
+            }
+            if (heads[b] == null) {
+                return true;
+            }
+
+            int result = order.compare(heads[a], heads[b]);
+
+            return result < 0 || (result == 0 && a < b);
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package anderson.impl;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import anderson.api.IncrementalSort;
+import anderson.api.SortTask;
+
+public class IncrementalMergeSortImpl<E> implements IncrementalSort<E> {
+    /**
+     * Length of blocks sorted by insertion sort before merging starts.
+     */
+    private static final int RUN_LENGTH = 32;
+    private static final String NON_POSITIVE_BUDGET_EXCEPTION_MESSAGE = "Budget must be positive; budget = %d";
+
+    @Override
+    public E[] sort(Comparable<E>[] array) {
+        E[] elements = (E[]) array;
+        Comparator<E> comparator = (element, other) -> ((Comparable<E>) element).compareTo(other);
+
+        return sort(elements, comparator);
+    }
+
+    @Override
+    public E[] sort(E[] array, Comparator<E> comparator) {
+        SortTask<E> task = begin(array, comparator);
+
+        while (task.step(Integer.MAX_VALUE)) {
+            // each step sorts as much as the budget allows
+        }
+
+        return array;
+    }
+
+    @Override
+    public SortTask<E> begin(E[] array, Comparator<E> comparator) {
+        return new MergeTask<>(array, comparator);
+    }
+
+    @Override
+    public SortTask<E> sortAsync(E[] array, Comparator<E> comparator, Executor executor, int budget) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException(String.format(NON_POSITIVE_BUDGET_EXCEPTION_MESSAGE, budget));
+        }
+
+        SortTask<E> task = begin(array, comparator);
+
+        new StepRunner<>(task, executor, budget).submit();
+
+        return task;
+    }
+
+    /**
+     * Runs one step per executor submission and resubmits itself until the task is done.
+     *
+     * An executor may run a submitted step inline, within the step which submitted it. Such nested steps are
+     * queued on the calling thread and run by the outermost one in a loop, so the stack does not grow.
+     */
+    private static class StepRunner<E> implements Runnable {
+        private static final ThreadLocal<ArrayDeque<StepRunner<?>>> PENDING = new ThreadLocal<>();
+
+        private final SortTask<E> task;
+        private final Executor executor;
+        private final int budget;
+
+        StepRunner(SortTask<E> task, Executor executor, int budget) {
+            this.task = task;
+            this.executor = executor;
+            this.budget = budget;
+        }
+
+        @Override
+        public void run() {
+            ArrayDeque<StepRunner<?>> pending = PENDING.get();
+
+            if (pending != null) {
+                pending.add(this);
+
+                return;
+            }
+
+            pending = new ArrayDeque<>();
+            PENDING.set(pending);
+
+            try {
+                for (StepRunner<?> runner = this; runner != null; runner = pending.poll()) {
+                    runner.step();
+                }
+            } finally {
+                PENDING.remove();
+            }
+        }
+
+        private void step() {
+            try {
+                if (task.step(budget)) {
+                    submit();
+                }
+            } catch (Throwable e) {
+                task.getResult().completeExceptionally(e);
+
+                if (e instanceof Error) {
+                    throw (Error) e;
+                }
+            }
+        }
+
+        private void submit() {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                task.getResult().completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Bottom-up merge sort whose state survives between steps.
+     *
+     * Blocks of RUN_LENGTH are first sorted by insertion sort, then merged in passes of doubling width,
+     * alternating between the array and a buffer. If the last pass ends in the buffer it is copied back.
+     * A block is always insertion-sorted as a whole, so a step may exceed its budget by up to RUN_LENGTH - 1
+     * elements; merging and copying honour the budget exactly.
+     */
+    private static class MergeTask<E> implements SortTask<E> {
+        private static final int INSERTION = 0;
+        private static final int MERGE = 1;
+        private static final int COPY_BACK = 2;
+        private static final int DONE = 3;
+
+        private final E[] array;
+        private final Comparator<E> comparator;
+        private final int length;
+        private final CompletableFuture<E[]> result = new CompletableFuture<>();
+
+        private E[] source;
+        private E[] target;
+        private int phase;
+
+        /**
+         * Width of runs merged during current pass.
+         */
+        private int width = RUN_LENGTH;
+
+        /**
+         * Start and end of the pair of runs being merged and positions within it.
+         */
+        private int low;
+        private int middle;
+        private int high;
+        private int left;
+        private int right;
+        private int output;
+
+        /**
+         * Elements processed so far; read by getProgress from other threads.
+         */
+        private volatile long work;
+        private final long totalWork;
+
+        private volatile boolean cancelled;
+
+        MergeTask(E[] array, Comparator<E> comparator) {
+            this.array = array;
+            this.comparator = comparator;
+            this.length = array.length;
+            this.source = array;
+
+            int passes = 0;
+            for (long w = RUN_LENGTH; w < length; w *= 2) {
+                passes += 1;
+            }
+
+            this.totalWork = (long) length * (passes + 1 + passes % 2);
+
+            if (length <= 1) {
+                finish();
+            }
+        }
+
+        @Override
+        public boolean step(int budget) {
+            if (budget <= 0) {
+                throw new IllegalArgumentException(String.format(NON_POSITIVE_BUDGET_EXCEPTION_MESSAGE, budget));
+            }
+
+            if (cancelled || result.isCancelled()) {
+                cancel();
+
+                return false;
+            }
+
+            int remaining = budget;
+
+            while (remaining > 0 && phase != DONE) {
+                if (phase == INSERTION) {
+                    remaining -= insertionSortBlock();
+                } else if (phase == MERGE) {
+                    remaining -= merge(remaining);
+                } else {
+                    remaining -= copyBack(remaining);
+                }
+            }
+
+            return phase != DONE;
+        }
+
+        @Override
+        public double getProgress() {
+            if (totalWork == 0) {
+                return 1;
+            }
+
+            return Math.min(1.0, (double) work / totalWork);
+        }
+
+        @Override
+        public boolean isDone() {
+            return phase == DONE || cancelled;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            result.cancel(false);
+        }
+
+        @Override
+        public CompletableFuture<E[]> getResult() {
+            return result;
+        }
+
+        /**
+         * Sorts next block with insertion sort.
+         *
+         * @return      number of elements in the block.
+         */
+        private int insertionSortBlock() {
+            int end = Math.min(low + RUN_LENGTH, length);
+
+            for (int i = low + 1; i < end; i++) {
+                E element = array[i];
+                int j = i - 1;
+
+                while (j >= low && comparator.compare(array[j], element) > 0) {
+                    array[j + 1] = array[j];
+                    j -= 1;
+                }
+
+                array[j + 1] = element;
+            }
+
+            int moved = end - low;
+            work += moved;
+            low = end;
+
+            if (low >= length) {
+                if (width >= length) {
+                    finish();
+                } else {
+                    target = (E[]) new Object[length];
+                    phase = MERGE;
+                    startPair(0);
+                }
+            }
+
+            return moved;
+        }
+
+        /**
+         * Merges current pair of runs until it is complete or the budget is spent.
+         *
+         * @return      number of elements moved.
+         */
+        private int merge(int budget) {
+            int moved = 0;
+
+            while (moved < budget && output < high) {
+                if (left == middle) {
+                    int count = Math.min(budget - moved, high - output);
+                    System.arraycopy(source, right, target, output, count);
+                    right += count;
+                    output += count;
+                    moved += count;
+                } else if (right == high) {
+                    int count = Math.min(budget - moved, high - output);
+                    System.arraycopy(source, left, target, output, count);
+                    left += count;
+                    output += count;
+                    moved += count;
+                } else {
+                    if (comparator.compare(source[right], source[left]) < 0) {
+                        target[output++] = source[right++];
+                    } else {
+                        target[output++] = source[left++];
+                    }
+                    moved += 1;
+                }
+            }
+
+            work += moved;
+
+            if (output == high) {
+                if (high < length) {
+                    startPair(high);
+                } else {
+                    endPass();
+                }
+            }
+
+            return Math.max(moved, 1);
+        }
+
+        private void startPair(int start) {
+            low = start;
+            middle = Math.min(start + width, length);
+            high = Math.min(start + 2 * width, length);
+            left = low;
+            right = middle;
+            output = low;
+        }
+
+        private void endPass() {
+            E[] merged = target;
+            target = source;
+            source = merged;
+            width *= 2;
+
+            if (width < length) {
+                startPair(0);
+            } else if (source != array) {
+                phase = COPY_BACK;
+                output = 0;
+            } else {
+                finish();
+            }
+        }
+
+        /**
+         * Copies result of the last pass from the buffer back to the array.
+         *
+         * @return      number of elements copied.
+         */
+        private int copyBack(int budget) {
+            int count = Math.min(budget, length - output);
+
+            System.arraycopy(source, output, array, output, count);
+            output += count;
+            work += count;
+
+            if (output == length) {
+                finish();
+            }
+
+            return count;
+        }
+
+        private void finish() {
+            phase = DONE;
+            source = array;
+            target = null;
+            work = totalWork;
+            result.complete(array);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package anderson.impl;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of reusable ArrayListImpl instances for short-lived lists.
+ *
+ * Lists are bucketed by capacity class (powers of two) and cached per thread, so acquiring and releasing
+ * a list on the same thread takes no locks.
+ */
+public class ListPool<E> {
+    private static final int DEFAULT_MIN_CAPACITY = 16;
+    private static final int DEFAULT_MAX_CAPACITY = 1 << 16;
+    private static final int DEFAULT_LISTS_PER_CLASS = 32;
+    private static final String NEGATIVE_CAPACITY_EXCEPTION_MESSAGE = "Capacity cannot be negative; capacity = %d";
+    private static final String LIST_ALREADY_RELEASED_EXCEPTION_MESSAGE = "List is already released to the pool";
+    private static final String INVALID_CAPACITY_RANGE_EXCEPTION_MESSAGE = "Capacity classes must be positive powers of two with min <= max; min = %d, max = %d";
+
+    /**
+     * Capacity of the smallest class. Every pooled list has a capacity of minCapacity * 2^n.
+     */
+    private final int minCapacity;
+
+    /**
+     * Capacity of the largest class. Larger lists are neither pooled nor handed out from the pool.
+     */
+    private final int maxCapacity;
+
+    /**
+     * Maximum number of idle lists kept per capacity class and thread.
+     */
+    private final int listsPerClass;
+
+    private final int classCount;
+
+    private final ThreadLocal<ArrayDeque<ArrayListImpl<E>>[]> caches;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     *  Default constructor which will init pool with capacity classes from 16 to 65536.
+     */
+    public ListPool() {
+        this(DEFAULT_MIN_CAPACITY, DEFAULT_MAX_CAPACITY, DEFAULT_LISTS_PER_CLASS);
+    }
+
+    /**
+     *  Constructor which will init pool with user-specified capacity classes.
+     *
+     * @param minCapacity       capacity of the smallest class; a power of two.
+     * @param maxCapacity       capacity of the largest class; a power of two.
+     * @param listsPerClass     maximum number of idle lists kept per capacity class and thread.
+     */
+    public ListPool(int minCapacity, int maxCapacity, int listsPerClass) {
+        if (minCapacity <= 0 || Integer.bitCount(minCapacity) != 1 || Integer.bitCount(maxCapacity) != 1
+                || minCapacity > maxCapacity) {
+            throw new IllegalArgumentException(String.format(INVALID_CAPACITY_RANGE_EXCEPTION_MESSAGE, minCapacity, maxCapacity));
+        }
+
+        this.minCapacity = minCapacity;
+        this.maxCapacity = maxCapacity;
+        this.listsPerClass = listsPerClass;
+        this.classCount = Integer.numberOfTrailingZeros(maxCapacity) - Integer.numberOfTrailingZeros(minCapacity) + 1;
+        this.caches = ThreadLocal.withInitial(this::createCache);
+    }
+
+    /**
+     * Hands out an empty list of the smallest capacity class able to hold given number of elements.
+     *
+     * @param capacity      minimal capacity of the list.
+     * @return              empty list, reused when the calling thread has one cached.
+     */
+    public ArrayListImpl<E> acquire(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException(String.format(NEGATIVE_CAPACITY_EXCEPTION_MESSAGE, capacity));
+        }
+
+        if (capacity > maxCapacity) {
+            misses.increment();
+
+            return new ArrayListImpl<>(capacity);
+        }
+
+        int capacityClass = ceilClass(capacity);
+        ArrayListImpl<E> list = caches.get()[capacityClass].poll();
+
+        if (list != null) {
+            list.pooled = false;
+            hits.increment();
+
+            return list;
+        }
+
+        misses.increment();
+
+        return new ArrayListImpl<>(minCapacity << capacityClass);
+    }
+
+    /**
+     * Returns a list to the calling thread's cache. The list is cleared and must not be used afterwards.
+     * Lists outside of the capacity classes, or beyond the per-class limit, are left to the garbage collector.
+     *
+     * @param list      list to be returned to the pool.
+     * @throws IllegalStateException if the list is already held by the pool.
+     */
+    public void release(ArrayListImpl<E> list) {
+        int capacity = list.getCapacity();
+
+        if (capacity < minCapacity || capacity > maxCapacity) {
+            return;
+        }
+
+        if (list.pooled) {
+            throw new IllegalStateException(LIST_ALREADY_RELEASED_EXCEPTION_MESSAGE);
+        }
+
+        ArrayDeque<ArrayListImpl<E>> cache = caches.get()[floorClass(capacity)];
+
+        if (cache.size() < listsPerClass) {
+            list.clear();
+            list.pooled = true;
+            cache.push(list);
+        }
+    }
+
+    /**
+     * @return      number of acquisitions served with a cached list.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return      number of acquisitions which had to allocate a new list.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private int ceilClass(int capacity) {
+        if (capacity <= minCapacity) {
+            return 0;
+        }
+
+        return 32 - Integer.numberOfLeadingZeros(capacity - 1) - Integer.numberOfTrailingZeros(minCapacity);
+    }
+
+    private int floorClass(int capacity) {
+        return 31 - Integer.numberOfLeadingZeros(capacity) - Integer.numberOfTrailingZeros(minCapacity);
+    }
+
+    private ArrayDeque<ArrayListImpl<E>>[] createCache() {
+        ArrayDeque<ArrayListImpl<E>>[] cache = (ArrayDeque<ArrayListImpl<E>>[]) new ArrayDeque<?>[classCount];
+
+        for (int i = 0; i < classCount; i++) {
+            cache[i] = new ArrayDeque<>();
+        }
+
+        return cache;
+    }
+}
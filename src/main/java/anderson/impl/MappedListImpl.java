@@ -0,0 +1,206 @@
+package anderson.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+
+import anderson.api.CloseableList;
+import anderson.api.ElementCodec;
+
+/**
+ * Read-only list backed by a memory-mapped file of length-prefixed encoded elements.
+ * Only the offset of every INDEX_INTERVAL-th record is kept on the heap; elements are decoded on access.
+ */
+public class MappedListImpl<E> implements CloseableList<E> {
+    /**
+     * Number of records between two sampled offsets. Access skips at most INDEX_INTERVAL - 1 records.
+     */
+    static final int INDEX_INTERVAL = 64;
+    /**
+     * Files larger than a single mapping allows are mapped in segments of this size.
+     */
+    private static final long SEGMENT_SIZE = 1L << 30;
+    private final String ARRAY_CANNOT_CONTAIN_NULL_VALUES_EXCEPTION_MESSAGE = "Array cannot contain null values";
+    private final String METHOD_WITH_NEGATIVE_INDEX_EXCEPTION_MESSAGE = "Cannot call method with negative index; index = %d";
+    private final String METHOD_WITH_INDEX_GREATER_THAN_CURRENT_SIZE_EXCEPTION_MESSAGE = "Cannot call method with index greater than current size; size = %d";
+    private final String READ_ONLY_LIST_EXCEPTION_MESSAGE = "Memory-mapped list is read-only";
+
+    private final Path file;
+
+    private final ElementCodec<E> codec;
+
+    /**
+     * Offset of every INDEX_INTERVAL-th record within the file.
+     */
+    private final long[] index;
+
+    private final int size;
+
+    /**
+     * Mapped segments; segment i covers records starting in [i * SEGMENT_SIZE, (i + 1) * SEGMENT_SIZE).
+     */
+    private final MappedByteBuffer[] segments;
+
+    /**
+     *  Constructor which maps a file written by ExternalMergeSortImpl.
+     *
+     * @param file              file holding length-prefixed encoded elements.
+     * @param codec             codec used to decode elements.
+     * @param index             offset of every INDEX_INTERVAL-th record within the file.
+     * @param size              number of records.
+     * @param maxRecordSize     size of the largest record, so records crossing a segment border stay mapped.
+     * @throws IOException      if the file cannot be mapped.
+     */
+    MappedListImpl(Path file, ElementCodec<E> codec, long[] index, int size, int maxRecordSize) throws IOException {
+        this.file = file;
+        this.codec = codec;
+        this.index = index;
+        this.size = size;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            int count = (int) ((length + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+
+            this.segments = new MappedByteBuffer[count];
+
+            for (int i = 0; i < count; i++) {
+                long start = i * SEGMENT_SIZE;
+                long end = Math.min(length, start + SEGMENT_SIZE + maxRecordSize);
+
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            }
+        }
+    }
+
+    @Override
+    public boolean add(E element) {
+        throw new UnsupportedOperationException(READ_ONLY_LIST_EXCEPTION_MESSAGE);
+    }
+
+    @Override
+    public void add(int index, E element) {
+        throw new UnsupportedOperationException(READ_ONLY_LIST_EXCEPTION_MESSAGE);
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException(READ_ONLY_LIST_EXCEPTION_MESSAGE);
+    }
+
+    @Override
+    public boolean contains(E element) {
+        return indexOf(element) != -1;
+    }
+
+    @Override
+    public E get(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException(String.format(METHOD_WITH_NEGATIVE_INDEX_EXCEPTION_MESSAGE, index));
+        } else if (index >= size) {
+            throw new IndexOutOfBoundsException(String.format(METHOD_WITH_INDEX_GREATER_THAN_CURRENT_SIZE_EXCEPTION_MESSAGE, index));
+        }
+
+        long offset = this.index[index / INDEX_INTERVAL];
+
+        for (int i = 0; i < index % INDEX_INTERVAL; i++) {
+            offset = nextRecord(offset);
+        }
+
+        return read(offset);
+    }
+
+    @Override
+    public int indexOf(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException(ARRAY_CANNOT_CONTAIN_NULL_VALUES_EXCEPTION_MESSAGE);
+        }
+
+        long offset = 0;
+
+        for (int i = 0; i < size; i++) {
+            if (element.equals(read(offset))) {
+                return i;
+            }
+
+            offset = nextRecord(offset);
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean remove(E element) {
+        throw new UnsupportedOperationException(READ_ONLY_LIST_EXCEPTION_MESSAGE);
+    }
+
+    @Override
+    public E remove(int index) {
+        throw new UnsupportedOperationException(READ_ONLY_LIST_EXCEPTION_MESSAGE);
+    }
+
+    @Override
+    public void sort(Comparator<E> comparator) {
+        throw new UnsupportedOperationException(READ_ONLY_LIST_EXCEPTION_MESSAGE);
+    }
+
+    @Override
+    public int getCapacity() {
+        return size;
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] elements = new Object[size];
+        long offset = 0;
+
+        for (int i = 0; i < size; i++) {
+            elements[i] = read(offset);
+            offset = nextRecord(offset);
+        }
+
+        return elements;
+    }
+
+    /**
+     * Deletes the backing file. Already mapped segments stay readable until garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Decodes the record starting at a given file offset.
+     */
+    private E read(long offset) {
+        int segment = (int) (offset / SEGMENT_SIZE);
+        ByteBuffer buffer = segments[segment].duplicate();
+
+        buffer.position((int) (offset - segment * SEGMENT_SIZE));
+
+        int recordSize = buffer.getInt();
+        buffer.limit(buffer.position() + recordSize);
+
+        return codec.read(buffer);
+    }
+
+    /**
+     * @return      file offset of the record following the one at a given offset.
+     */
+    private long nextRecord(long offset) {
+        int segment = (int) (offset / SEGMENT_SIZE);
+        int recordSize = segments[segment].getInt((int) (offset - segment * SEGMENT_SIZE));
+
+        return offset + Integer.BYTES + recordSize;
+    }
+}
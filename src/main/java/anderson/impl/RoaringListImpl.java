@@ -0,0 +1,919 @@
+package anderson.impl;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import anderson.api.List;
+
+/**
+ * Compressed sorted set of integers following the roaring bitmap layout.
+ *
+ * Values are split by their high 16 bits into chunks of 65536. Each chunk is stored in whichever container is
+ * smallest for its contents: a sorted array for sparse chunks, a bitmap for dense ones, or a list of runs for
+ * consecutive values. Elements are kept unique and in ascending order, so get(index) selects the index-th
+ * smallest value and indexOf returns its rank.
+ */
+public class RoaringListImpl implements List<Integer> {
+    private static final int DEFAULT_CAPACITY = 4;
+    private final String ARRAY_CANNOT_CONTAIN_NULL_VALUES_EXCEPTION_MESSAGE = "Array cannot contain null values";
+    private final String METHOD_WITH_NEGATIVE_INDEX_EXCEPTION_MESSAGE = "Cannot call method with negative index; index = %d";
+    private final String METHOD_WITH_INDEX_GREATER_THAN_CURRENT_SIZE_EXCEPTION_MESSAGE = "Cannot call method with index greater than current size; size = %d";
+    private final String SORTED_LIST_EXCEPTION_MESSAGE = "Roaring list keeps elements in ascending order";
+
+    /**
+     * High 16 bits of the chunks present in the list, in ascending order.
+     */
+    private char[] keys;
+
+    /**
+     * Container holding low 16 bits of the values of each chunk.
+     */
+    private Container[] containers;
+
+    /**
+     * Number of chunks in use.
+     */
+    private int chunks;
+
+    /**
+     * Total number of elements.
+     */
+    private int size;
+
+    /**
+     *  Default constructor which will init an empty list.
+     */
+    public RoaringListImpl() {
+        this.keys = new char[DEFAULT_CAPACITY];
+        this.containers = new Container[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Adds an element unless it is already present.
+     *
+     * @param   element element to be inserted.
+     * @return  true if element is inserted and false if it was already present.
+     */
+    @Override
+    public boolean add(Integer element) {
+        if (element == null) {
+            throw new IllegalArgumentException(ARRAY_CANNOT_CONTAIN_NULL_VALUES_EXCEPTION_MESSAGE);
+        }
+
+        char key = high(element);
+        char low = low(element);
+        int index = findChunk(key);
+
+        if (index < 0) {
+            index = -index - 1;
+            insertChunk(index, key, new ArrayContainer());
+        }
+
+        Container container = containers[index];
+        int cardinality = container.cardinality();
+
+        containers[index] = container.add(low);
+
+        if (containers[index].cardinality() == cardinality) {
+            return false;
+        }
+
+        size += 1;
+
+        return true;
+    }
+
+    /**
+     * Not supported: position of an element is defined by its value.
+     */
+    @Override
+    public void add(int index, Integer element) {
+        throw new UnsupportedOperationException(SORTED_LIST_EXCEPTION_MESSAGE);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(containers, 0, chunks, null);
+        chunks = 0;
+        size = 0;
+    }
+
+    @Override
+    public boolean contains(Integer element) {
+        if (element == null) {
+            throw new IllegalArgumentException(ARRAY_CANNOT_CONTAIN_NULL_VALUES_EXCEPTION_MESSAGE);
+        }
+
+        int index = findChunk(high(element));
+
+        return index >= 0 && containers[index].contains(low(element));
+    }
+
+    /**
+     * Selects the index-th smallest element.
+     */
+    @Override
+    public Integer get(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException(String.format(METHOD_WITH_NEGATIVE_INDEX_EXCEPTION_MESSAGE, index));
+        } else if (index >= size) {
+            throw new IndexOutOfBoundsException(String.format(METHOD_WITH_INDEX_GREATER_THAN_CURRENT_SIZE_EXCEPTION_MESSAGE, index));
+        }
+
+        int rank = index;
+
+        for (int i = 0; i < chunks; i++) {
+            int cardinality = containers[i].cardinality();
+
+            if (rank < cardinality) {
+                return combine(keys[i], containers[i].select(rank));
+            }
+
+            rank -= cardinality;
+        }
+
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Returns the rank of an element, i.e. the number of smaller elements, or -1 if it is absent.
+     */
+    @Override
+    public int indexOf(Integer element) {
+        if (element == null) {
+            throw new IllegalArgumentException(ARRAY_CANNOT_CONTAIN_NULL_VALUES_EXCEPTION_MESSAGE);
+        }
+
+        char key = high(element);
+        char low = low(element);
+        int rank = 0;
+
+        for (int i = 0; i < chunks && keys[i] <= key; i++) {
+            if (keys[i] == key) {
+                return containers[i].contains(low) ? rank + containers[i].rank(low) : -1;
+            }
+
+            rank += containers[i].cardinality();
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean remove(Integer element) {
+        if (element == null) {
+            throw new IllegalArgumentException(ARRAY_CANNOT_CONTAIN_NULL_VALUES_EXCEPTION_MESSAGE);
+        }
+
+        int index = findChunk(high(element));
+
+        if (index < 0 || !containers[index].contains(low(element))) {
+            return false;
+        }
+
+        containers[index] = containers[index].remove(low(element));
+        size -= 1;
+
+        if (containers[index].cardinality() == 0) {
+            removeChunk(index);
+        }
+
+        return true;
+    }
+
+    @Override
+    public Integer remove(int index) {
+        Integer element = get(index);
+
+        remove(element);
+
+        return element;
+    }
+
+    /**
+     * Not supported: elements are always kept in ascending order.
+     */
+    @Override
+    public void sort(Comparator<Integer> comparator) {
+        throw new UnsupportedOperationException(SORTED_LIST_EXCEPTION_MESSAGE);
+    }
+
+    /**
+     * Roaring list has no fixed capacity.
+     *
+     * @return      number of elements present in the list.
+     */
+    @Override
+    public int getCapacity() {
+        return size;
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] elements = new Object[size];
+        int offset = 0;
+
+        long[] words = new long[Container.BITMAP_WORDS];
+
+        for (int i = 0; i < chunks; i++) {
+            Arrays.fill(words, 0);
+            containers[i].fill(words);
+
+            for (int j = 0; j < words.length; j++) {
+                long word = words[j];
+
+                while (word != 0) {
+                    elements[offset++] = combine(keys[i], (char) (j * Long.SIZE + Long.numberOfTrailingZeros(word)));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        return elements;
+    }
+
+    /**
+     * Converts every container to run encoding where that is smaller, e.g. after a bulk load of dense IDs.
+     */
+    public void runOptimize() {
+        for (int i = 0; i < chunks; i++) {
+            containers[i] = containers[i].optimize();
+        }
+    }
+
+    /**
+     * Approximates memory used by containers' payload.
+     *
+     * @return      size of containers in bytes.
+     */
+    public long getSizeInBytes() {
+        long bytes = (long) chunks * (Character.BYTES + Integer.BYTES);
+
+        for (int i = 0; i < chunks; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Computes intersection of two lists.
+     *
+     * @param other     list to intersect with.
+     * @return          new list holding elements present in both lists.
+     */
+    public RoaringListImpl and(RoaringListImpl other) {
+        RoaringListImpl result = new RoaringListImpl();
+        int i = 0;
+        int j = 0;
+
+        while (i < chunks && j < other.chunks) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.appendChunk(keys[i], containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes union of two lists.
+     *
+     * @param other     list to unite with.
+     * @return          new list holding elements present in either list.
+     */
+    public RoaringListImpl or(RoaringListImpl other) {
+        RoaringListImpl result = new RoaringListImpl();
+        int i = 0;
+        int j = 0;
+
+        while (i < chunks || j < other.chunks) {
+            if (j == other.chunks || (i < chunks && keys[i] < other.keys[j])) {
+                result.appendChunk(keys[i], containers[i].copy());
+                i++;
+            } else if (i == chunks || keys[i] > other.keys[j]) {
+                result.appendChunk(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.appendChunk(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes difference of two lists.
+     *
+     * @param other     list whose elements are excluded.
+     * @return          new list holding elements of this list absent in the other one.
+     */
+    public RoaringListImpl andNot(RoaringListImpl other) {
+        RoaringListImpl result = new RoaringListImpl();
+        int j = 0;
+
+        for (int i = 0; i < chunks; i++) {
+            while (j < other.chunks && other.keys[j] < keys[i]) {
+                j++;
+            }
+
+            if (j < other.chunks && other.keys[j] == keys[i]) {
+                result.appendChunk(keys[i], containers[i].andNot(other.containers[j]));
+            } else {
+                result.appendChunk(keys[i], containers[i].copy());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Values are mapped so that chunk order follows signed integer order.
+     */
+    private static char high(int value) {
+        return (char) ((value ^ Integer.MIN_VALUE) >>> 16);
+    }
+
+    private static char low(int value) {
+        return (char) value;
+    }
+
+    private static int combine(char high, char low) {
+        return ((high << 16) | low) ^ Integer.MIN_VALUE;
+    }
+
+    private int findChunk(char key) {
+        return Arrays.binarySearch(keys, 0, chunks, key);
+    }
+
+    private void insertChunk(int index, char key, Container container) {
+        if (chunks == keys.length) {
+            keys = Arrays.copyOf(keys, chunks * 2);
+            containers = Arrays.copyOf(containers, chunks * 2);
+        }
+
+        System.arraycopy(keys, index, keys, index + 1, chunks - index);
+        System.arraycopy(containers, index, containers, index + 1, chunks - index);
+
+        keys[index] = key;
+        containers[index] = container;
+        chunks += 1;
+    }
+
+    private void removeChunk(int index) {
+        System.arraycopy(keys, index + 1, keys, index, chunks - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, chunks - index - 1);
+
+        chunks -= 1;
+        containers[chunks] = null;
+    }
+
+    /**
+     * Appends a chunk with a key greater than all present ones. Empty containers are skipped.
+     */
+    private void appendChunk(char key, Container container) {
+        if (container.cardinality() == 0) {
+            return;
+        }
+
+        insertChunk(chunks, key, container);
+        size += container.cardinality();
+    }
+
+    /**
+     * Holds low 16 bits of values sharing the same high 16 bits.
+     * Mutating methods return the container to be used afterwards, which may be of another type.
+     */
+    private abstract static class Container {
+        /**
+         * Sparse chunks are stored as arrays up to this cardinality, denser ones as bitmaps.
+         */
+        static final int ARRAY_MAX_CARDINALITY = 4096;
+        static final int BITMAP_WORDS = 1 << 10;
+        static final int BITMAP_SIZE_IN_BYTES = BITMAP_WORDS * Long.BYTES;
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        /**
+         * @return      value of a given rank within the container.
+         */
+        abstract char select(int rank);
+
+        /**
+         * @return      number of values smaller than a given one.
+         */
+        abstract int rank(char value);
+
+        /**
+         * Sets bits of all values in given bitmap words.
+         */
+        abstract void fill(long[] words);
+
+        abstract Container copy();
+
+        abstract int sizeInBytes();
+
+        /**
+         * @return      the smallest representation of the same values.
+         */
+        Container optimize() {
+            long[] words = new long[BITMAP_WORDS];
+            fill(words);
+
+            return fromWords(words);
+        }
+
+        Container and(Container other) {
+            if (this instanceof ArrayContainer) {
+                return ((ArrayContainer) this).filter(other, true);
+            }
+            if (other instanceof ArrayContainer) {
+                return ((ArrayContainer) other).filter(this, true);
+            }
+
+            long[] words = new long[BITMAP_WORDS];
+            long[] otherWords = new long[BITMAP_WORDS];
+            fill(words);
+            other.fill(otherWords);
+
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                words[i] &= otherWords[i];
+            }
+
+            return fromWords(words);
+        }
+
+        Container or(Container other) {
+            long[] words = new long[BITMAP_WORDS];
+            fill(words);
+            other.fill(words);
+
+            return fromWords(words);
+        }
+
+        Container andNot(Container other) {
+            if (this instanceof ArrayContainer) {
+                return ((ArrayContainer) this).filter(other, false);
+            }
+
+            long[] words = new long[BITMAP_WORDS];
+            long[] otherWords = new long[BITMAP_WORDS];
+            fill(words);
+            other.fill(otherWords);
+
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                words[i] &= ~otherWords[i];
+            }
+
+            return fromWords(words);
+        }
+
+        /**
+         * Picks the smallest of array, bitmap and run containers for given bitmap words.
+         */
+        static Container fromWords(long[] words) {
+            int cardinality = 0;
+            int runs = 0;
+            long previous = 0;
+
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+                runs += Long.bitCount(word & ~((word << 1) | (previous >>> 63)));
+                previous = word;
+            }
+
+            int arraySize = cardinality * Character.BYTES;
+            int runSize = runs * 2 * Character.BYTES;
+
+            if (runSize < Math.min(arraySize, BITMAP_SIZE_IN_BYTES)) {
+                return RunContainer.fromWords(words, runs, cardinality);
+            }
+            if (cardinality <= ARRAY_MAX_CARDINALITY) {
+                return ArrayContainer.fromWords(words, cardinality);
+            }
+
+            return new BitmapContainer(words, cardinality);
+        }
+    }
+
+    private static class ArrayContainer extends Container {
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this.values = new char[DEFAULT_CAPACITY];
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        static ArrayContainer fromWords(long[] words, int cardinality) {
+            char[] values = new char[Math.max(cardinality, 1)];
+            int count = 0;
+
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+
+                while (word != 0) {
+                    values[count++] = (char) (i * Long.SIZE + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+
+            return new ArrayContainer(values, count);
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX_CARDINALITY) {
+                long[] words = new long[BITMAP_WORDS];
+                fill(words);
+
+                return new BitmapContainer(words, cardinality).add(value);
+            }
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(cardinality * 2, ARRAY_MAX_CARDINALITY));
+            }
+
+            index = -index - 1;
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality += 1;
+
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality -= 1;
+            }
+
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        char select(int rank) {
+            return values[rank];
+        }
+
+        @Override
+        int rank(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+
+            return index >= 0 ? index : -index - 1;
+        }
+
+        @Override
+        void fill(long[] words) {
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 1)), cardinality);
+        }
+
+        @Override
+        int sizeInBytes() {
+            return values.length * Character.BYTES;
+        }
+
+        /**
+         * Keeps values which are present (or absent) in the other container.
+         */
+        Container filter(Container other, boolean present) {
+            char[] filtered = new char[Math.max(cardinality, 1)];
+            int count = 0;
+
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i]) == present) {
+                    filtered[count++] = values[i];
+                }
+            }
+
+            return new ArrayContainer(filtered, count);
+        }
+    }
+
+    private static class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            long bit = 1L << value;
+
+            if ((words[value >>> 6] & bit) == 0) {
+                words[value >>> 6] |= bit;
+                cardinality += 1;
+            }
+
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long bit = 1L << value;
+
+            if ((words[value >>> 6] & bit) != 0) {
+                words[value >>> 6] &= ~bit;
+                cardinality -= 1;
+            }
+
+            return cardinality <= ARRAY_MAX_CARDINALITY ? ArrayContainer.fromWords(words, cardinality) : this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        char select(int rank) {
+            for (int i = 0; i < words.length; i++) {
+                int count = Long.bitCount(words[i]);
+
+                if (rank < count) {
+                    long word = words[i];
+
+                    for (int j = 0; j < rank; j++) {
+                        word &= word - 1;
+                    }
+
+                    return (char) (i * Long.SIZE + Long.numberOfTrailingZeros(word));
+                }
+
+                rank -= count;
+            }
+
+            throw new IllegalStateException();
+        }
+
+        @Override
+        int rank(char value) {
+            int rank = 0;
+            int index = value >>> 6;
+
+            for (int i = 0; i < index; i++) {
+                rank += Long.bitCount(words[i]);
+            }
+
+            return rank + Long.bitCount(words[index] & ((1L << value) - 1));
+        }
+
+        @Override
+        void fill(long[] target) {
+            for (int i = 0; i < words.length; i++) {
+                target[i] |= words[i];
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        int sizeInBytes() {
+            return BITMAP_SIZE_IN_BYTES;
+        }
+    }
+
+    /**
+     * Stores values as runs of (start, length - 1) pairs.
+     */
+    private static class RunContainer extends Container {
+        private char[] runs;
+        private int runCount;
+        private int cardinality;
+
+        RunContainer(char[] runs, int runCount, int cardinality) {
+            this.runs = runs;
+            this.runCount = runCount;
+            this.cardinality = cardinality;
+        }
+
+        static RunContainer fromWords(long[] words, int runCount, int cardinality) {
+            char[] runs = new char[Math.max(runCount, 1) * 2];
+            int run = 0;
+            int value = nextBit(words, 0, true);
+
+            while (value >= 0) {
+                int end = nextBit(words, value, false);
+                int last = (end < 0 ? BITMAP_WORDS * Long.SIZE : end) - 1;
+
+                runs[2 * run] = (char) value;
+                runs[2 * run + 1] = (char) (last - value);
+                run += 1;
+
+                value = end < 0 ? -1 : nextBit(words, end, true);
+            }
+
+            return new RunContainer(runs, run, cardinality);
+        }
+
+        /**
+         * @return      index of the first set (or clear) bit starting from a given one, or -1.
+         */
+        private static int nextBit(long[] words, int from, boolean set) {
+            int index = from >>> 6;
+
+            if (index >= words.length) {
+                return -1;
+            }
+
+            long word = (set ? words[index] : ~words[index]) & (-1L << from);
+
+            while (word == 0) {
+                if (++index == words.length) {
+                    return -1;
+                }
+
+                word = set ? words[index] : ~words[index];
+            }
+
+            return index * Long.SIZE + Long.numberOfTrailingZeros(word);
+        }
+
+        @Override
+        Container add(char value) {
+            if (contains(value)) {
+                return this;
+            }
+
+            int end = runCount == 0 ? -2 : runs[2 * runCount - 2] + runs[2 * runCount - 1];
+
+            if (value == end + 1) {
+                runs[2 * runCount - 1] += 1;
+                cardinality += 1;
+
+                return this;
+            }
+            if (value > end) {
+                if (2 * runCount == runs.length) {
+                    runs = Arrays.copyOf(runs, runs.length * 2);
+                }
+
+                runs[2 * runCount] = value;
+                runs[2 * runCount + 1] = 0;
+                runCount += 1;
+                cardinality += 1;
+
+                return this;
+            }
+
+            return expand().add(value);
+        }
+
+        @Override
+        Container remove(char value) {
+            return expand().remove(value);
+        }
+
+        @Override
+        boolean contains(char value) {
+            int run = findRun(value);
+
+            return run >= 0 && value - runs[2 * run] <= runs[2 * run + 1];
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        char select(int rank) {
+            for (int i = 0; i < runCount; i++) {
+                int length = runs[2 * i + 1] + 1;
+
+                if (rank < length) {
+                    return (char) (runs[2 * i] + rank);
+                }
+
+                rank -= length;
+            }
+
+            throw new IllegalStateException();
+        }
+
+        @Override
+        int rank(char value) {
+            int rank = 0;
+
+            for (int i = 0; i < runCount && runs[2 * i] < value; i++) {
+                rank += Math.min(runs[2 * i + 1] + 1, value - runs[2 * i]);
+            }
+
+            return rank;
+        }
+
+        @Override
+        void fill(long[] words) {
+            for (int i = 0; i < runCount; i++) {
+                int start = runs[2 * i];
+                int end = start + runs[2 * i + 1];
+
+                for (int value = start; value <= end; value++) {
+                    words[value >>> 6] |= 1L << value;
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new RunContainer(Arrays.copyOf(runs, Math.max(runCount, 1) * 2), runCount, cardinality);
+        }
+
+        @Override
+        int sizeInBytes() {
+            return runs.length * Character.BYTES;
+        }
+
+        /**
+         * Runs are only extended at the end; other updates go through an array or a bitmap.
+         */
+        private Container expand() {
+            long[] words = new long[BITMAP_WORDS];
+            fill(words);
+
+            if (cardinality <= ARRAY_MAX_CARDINALITY) {
+                return ArrayContainer.fromWords(words, cardinality);
+            }
+
+            return new BitmapContainer(words, cardinality);
+        }
+
+        /**
+         * @return      index of the last run starting at or before a given value, or -1.
+         */
+        private int findRun(char value) {
+            int low = 0;
+            int high = runCount - 1;
+
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+
+                if (runs[2 * middle] <= value) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+
+            return high;
+        }
+    }
+}
@@ -133,6 +133,23 @@ public class ArrayListImplTest {
         assertEquals(EXPECTED_SIZE, list.toArray().length);
     }
 
+    @Test
+    public void shouldKeepCapacityAndForgetElementsAfterClear() {
+        final int CAPACITY = 15;
+
+        List<Integer> list = new ArrayListImpl<>(CAPACITY);
+
+        list.add(1);
+        list.add(2);
+
+        list.clear();
+        list.add(3);
+
+        assertEquals(CAPACITY, list.getCapacity());
+        assertFalse(list.contains(2));
+        assertArrayEquals(new Integer[] { 3 }, list.toArray());
+    }
+
     @Test
     public void shouldReturnTrueIfContainsElement() {
         List<Integer> list = new ArrayListImpl<>();
@@ -231,6 +248,24 @@ public class ArrayListImplTest {
         assertEquals(EXPECTED_SIZE, list.size());
     }
 
+    @Test
+    public void shouldShiftRemainingElementsAfterRemoval() {
+        final Integer[] EXPECTED_ARRAY = { 12, 44, 11 };
+
+        List<Integer> list = new ArrayListImpl<>();
+
+        list.add(12);
+        list.add(43);
+        list.add(44);
+        list.add(11);
+
+        list.remove(1);
+
+        assertArrayEquals(EXPECTED_ARRAY, list.toArray());
+        assertFalse(list.contains(43));
+        assertTrue(list.contains(11));
+    }
+
     @Test
     public void shouldReturnFalseWhenRemovingMissingElement() {
         final int EXPECTED_SIZE = 4;
@@ -0,0 +1,147 @@
+package anderson.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentAppendListImplTest {
+    @Test
+    public void shouldPublishElementsOnlyWhenBatchIsFull() {
+        ConcurrentAppendListImpl<Integer> list = new ConcurrentAppendListImpl<>(3);
+
+        list.add(1);
+        list.add(2);
+
+        assertEquals(0, list.size());
+
+        list.add(3);
+
+        assertArrayEquals(new Integer[] { 1, 2, 3 }, list.toArray());
+    }
+
+    @Test
+    public void shouldPublishPartialBatchOnFlush() {
+        ConcurrentAppendListImpl<Integer> list = new ConcurrentAppendListImpl<>();
+
+        list.add(5);
+        list.flush();
+
+        assertEquals(1, list.size());
+        assertEquals(5, (long) list.get(0));
+        assertTrue(list.contains(5));
+    }
+
+    @Test
+    public void shouldStoreElementsAcrossSegments() {
+        final int SIZE = 10000;
+
+        ConcurrentAppendListImpl<Integer> list = new ConcurrentAppendListImpl<>(7);
+
+        for (int i = 0; i < SIZE; i++) {
+            list.add(i);
+        }
+
+        list.flush();
+
+        assertEquals(SIZE, list.size());
+        assertEquals(SIZE - 1, (long) list.get(SIZE - 1));
+        assertEquals(4321, list.indexOf(4321));
+    }
+
+    @Test
+    public void shouldAllocateOneSegmentAheadOfPublishedElements() {
+        final int BATCH_SIZE = 64;
+        final int FIRST_SEGMENT = 1024;
+
+        ConcurrentAppendListImpl<Integer> list = new ConcurrentAppendListImpl<>(BATCH_SIZE);
+
+        for (int i = 0; i < FIRST_SEGMENT; i++) {
+            list.add(i);
+        }
+
+        assertEquals(FIRST_SEGMENT * 3, list.getCapacity());
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            list.add(i);
+        }
+
+        assertEquals(FIRST_SEGMENT * 7, list.getCapacity());
+    }
+
+    @Test
+    public void shouldKeepEveryElementAddedByConcurrentProducers() throws InterruptedException {
+        final int PRODUCERS = 8;
+        final int ELEMENTS_PER_PRODUCER = 20000;
+
+        ConcurrentAppendListImpl<Integer> list = new ConcurrentAppendListImpl<>(16);
+        Thread[] producers = new Thread[PRODUCERS];
+
+        for (int p = 0; p < PRODUCERS; p++) {
+            final int offset = p * ELEMENTS_PER_PRODUCER;
+
+            producers[p] = new Thread(() -> {
+                for (int i = 0; i < ELEMENTS_PER_PRODUCER; i++) {
+                    list.add(offset + i);
+                }
+
+                list.flush();
+            });
+            producers[p].start();
+        }
+
+        list.await(PRODUCERS * ELEMENTS_PER_PRODUCER);
+
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        Object[] elements = list.toArray();
+        Arrays.sort(elements);
+
+        assertEquals(PRODUCERS * ELEMENTS_PER_PRODUCER, elements.length);
+        for (int i = 0; i < elements.length; i++) {
+            assertEquals(i, (long) (Integer) elements[i]);
+        }
+    }
+
+    @Test
+    public void shouldDrainPublishedElementsFromPosition() {
+        ConcurrentAppendListImpl<Integer> list = new ConcurrentAppendListImpl<>(2);
+        ArrayList<Integer> drained = new ArrayList<>();
+
+        list.add(1);
+        list.add(2);
+
+        int position = list.drainTo(drained::add, 0);
+
+        list.add(3);
+        list.add(4);
+
+        position = list.drainTo(drained::add, position);
+
+        assertEquals(4, position);
+        assertEquals(Arrays.asList(1, 2, 3, 4), drained);
+    }
+
+    @Test
+    public void shouldTimeOutWhenNotEnoughElementsArePublished() throws InterruptedException {
+        ConcurrentAppendListImpl<Integer> list = new ConcurrentAppendListImpl<>();
+
+        list.add(1);
+
+        assertFalse(list.await(1, 10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void shouldThrowWhenRemovingElement() {
+        ConcurrentAppendListImpl<Integer> list = new ConcurrentAppendListImpl<>();
+
+        assertThrows(UnsupportedOperationException.class, () -> {
+            list.remove(0);
+        });
+    }
+}
@@ -0,0 +1,108 @@
+package anderson.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import anderson.api.List;
+
+public class DeltaLongListImplTest {
+    @Test
+    public void shouldGetElementsFromSealedAndOpenBlocks() {
+        final int SIZE = 1000;
+        final long START = 1600000000000L;
+
+        List<Long> list = new DeltaLongListImpl();
+
+        for (int i = 0; i < SIZE; i++) {
+            list.add(START + 1000L * i + i % 7);
+        }
+
+        assertEquals(SIZE, list.size());
+        assertEquals(START, (long) list.get(0));
+        assertEquals(START + 1000L * 500 + 500 % 7, (long) list.get(500));
+        assertEquals(START + 1000L * (SIZE - 1) + (SIZE - 1) % 7, (long) list.get(SIZE - 1));
+    }
+
+    @Test
+    public void shouldReturnIndexOfFirstOccurrence() {
+        List<Long> list = new DeltaLongListImpl();
+
+        for (int i = 0; i < 300; i++) {
+            list.add(i < 120 ? (long) i : 120L);
+        }
+
+        assertEquals(50, list.indexOf(50L));
+        assertEquals(120, list.indexOf(120L));
+        assertEquals(-1, list.indexOf(121L));
+        assertEquals(-1, list.indexOf(-1L));
+        assertTrue(list.contains(0L));
+    }
+
+    @Test
+    public void shouldStoreJitteryTimestampsInFewBytesPerElement() {
+        final int SIZE = 100000;
+
+        DeltaLongListImpl list = new DeltaLongListImpl();
+        Random random = new Random(42);
+        long timestamp = 1600000000000L;
+        long[] expected = new long[SIZE];
+
+        for (int i = 0; i < SIZE; i++) {
+            timestamp += 10 + random.nextInt(100);
+            expected[i] = timestamp;
+            list.add(timestamp);
+        }
+
+        long[] decoded = new long[SIZE];
+        int[] index = { 0 };
+        list.forEach(value -> decoded[index[0]++] = value);
+
+        assertArrayEquals(expected, decoded);
+        assertTrue(list.getSizeInBytes() < 2L * SIZE);
+    }
+
+    @Test
+    public void shouldRoundTripDeltasWiderThanLong() {
+        final int SIZE = 200;
+
+        List<Long> list = new DeltaLongListImpl();
+        Object[] expected = new Object[SIZE];
+
+        for (int i = 0; i < SIZE; i++) {
+            long value = i < 64 ? Long.MIN_VALUE + i : Long.MAX_VALUE - (SIZE - i);
+            expected[i] = value;
+            list.add(value);
+        }
+
+        assertArrayEquals(expected, list.toArray());
+        assertEquals(Long.MAX_VALUE - (SIZE - 100), (long) list.get(100));
+    }
+
+    @Test
+    public void shouldThrowWhenValueDecreases() {
+        List<Long> list = new DeltaLongListImpl();
+
+        list.add(10L);
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            list.add(9L);
+        });
+    }
+
+    @Test
+    public void shouldClearList() {
+        List<Long> list = new DeltaLongListImpl();
+
+        for (long i = 0; i < 200; i++) {
+            list.add(i);
+        }
+
+        list.clear();
+        list.add(5L);
+
+        assertArrayEquals(new Object[] { 5L }, list.toArray());
+    }
+}
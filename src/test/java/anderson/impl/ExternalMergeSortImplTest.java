@@ -0,0 +1,262 @@
+package anderson.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import anderson.api.ArraySort;
+import anderson.api.CloseableList;
+import anderson.api.ElementCodec;
+import anderson.api.ExternalSort;
+
+public class ExternalMergeSortImplTest {
+    private static final ElementCodec<Integer> INTEGER_CODEC = new ElementCodec<Integer>() {
+        @Override
+        public int size(Integer element) {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(Integer element, ByteBuffer buffer) {
+            buffer.putInt(element);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer) {
+            return buffer.getInt();
+        }
+    };
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    public void shouldStreamSortedElements() throws IOException {
+        final Integer[] EXPECTED = { 0, 0, 5, 8, 9, 12, 34, 41 };
+
+        Integer[] array = { 5, 8, 12, 34, 41, 0, 0, 9 };
+
+        ExternalSort<Integer> sort = new ExternalMergeSortImpl<>(INTEGER_CODEC);
+        ArrayList<Integer> sorted = new ArrayList<>();
+
+        sort.sort(Arrays.asList(array).iterator(), Integer::compare, sorted::add);
+
+        assertArrayEquals(EXPECTED, sorted.toArray());
+    }
+
+    @Test
+    public void shouldSortInComparatorOrderRegardlessOfMemoryBudget() throws IOException {
+        final Integer[] EXPECTED = { 41, 34, 12, 9, 8, 5, 0, 0 };
+        final int ONE_ELEMENT_PER_RUN = 24;
+        final int WHOLE_INPUT_IN_ONE_RUN = 1024 * 1024;
+
+        Integer[] array = { 5, 8, 12, 34, 41, 0, 0, 9 };
+
+        for (int memoryBudget : new int[] { ONE_ELEMENT_PER_RUN, WHOLE_INPUT_IN_ONE_RUN }) {
+            ExternalSort<Integer> sort = new ExternalMergeSortImpl<>(INTEGER_CODEC, new QuickArraySortImpl<>(),
+                    memoryBudget, 2, spillDirectory);
+            ArrayList<Integer> sorted = new ArrayList<>();
+
+            sort.sort(Arrays.asList(array).iterator(), Comparator.reverseOrder(), sorted::add);
+
+            assertArrayEquals(EXPECTED, sorted.toArray());
+        }
+    }
+
+    @Test
+    public void shouldSortInComparatorOrderWithWrappedRunSorter() throws IOException {
+        final Integer[] EXPECTED = { 0, 0, 5, 8, 9, 12, 34, 41 };
+        final int MEMORY_BUDGET = 24 * 3;
+
+        Integer[] array = { 5, 8, 12, 34, 41, 0, 0, 9 };
+
+        QuickArraySortImpl<Integer> subclassed = new QuickArraySortImpl<Integer>() {};
+
+        for (ArraySort<Integer> runSort : Arrays.asList(subclassed, decorate(subclassed))) {
+            ExternalSort<Integer> sort = new ExternalMergeSortImpl<>(INTEGER_CODEC, runSort, MEMORY_BUDGET, 2,
+                    spillDirectory);
+            ArrayList<Integer> sorted = new ArrayList<>();
+
+            sort.sort(Arrays.asList(array).iterator(), Integer::compare, sorted::add);
+
+            assertArrayEquals(EXPECTED, sorted.toArray());
+        }
+    }
+
+    @Test
+    public void shouldThrowWhenRunSorterLeavesRunUnsorted() throws IOException {
+        Integer[] array = { 5, 8, 12, 34, 41, 0, 0, 9 };
+
+        ExternalSort<Integer> sort = new ExternalMergeSortImpl<>(INTEGER_CODEC, identity(), 24 * 3, 2,
+                spillDirectory);
+
+        assertThrows(IllegalStateException.class, () -> {
+            sort.sort(Arrays.asList(array).iterator(), Integer::compare, element -> {});
+        });
+
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void shouldSortPresortedInputWithDefaultSettings() throws IOException {
+        final int SIZE = 100000;
+
+        ArrayList<Integer> input = new ArrayList<>();
+
+        for (int i = 0; i < SIZE; i++) {
+            input.add(i);
+        }
+
+        ExternalSort<Integer> sort = new ExternalMergeSortImpl<>(INTEGER_CODEC);
+        ArrayList<Integer> sorted = new ArrayList<>();
+
+        sort.sort(input.iterator(), Integer::compare, sorted::add);
+
+        assertEquals(input, sorted);
+    }
+
+    @Test
+    public void shouldMergeRunsInSeveralPasses() throws IOException {
+        final int SIZE = 5000;
+        final int MEMORY_BUDGET = 24 * 100;
+        final int FAN_IN = 3;
+
+        ArrayList<Integer> input = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < SIZE; i++) {
+            input.add(random.nextInt(1000));
+        }
+
+        ExternalSort<Integer> sort = new ExternalMergeSortImpl<>(INTEGER_CODEC, new QuickArraySortImpl<>(),
+                MEMORY_BUDGET, FAN_IN, spillDirectory);
+        ArrayList<Integer> sorted = new ArrayList<>();
+
+        sort.sort(input.iterator(), Integer::compare, sorted::add);
+
+        Collections.sort(input);
+
+        assertEquals(input, sorted);
+    }
+
+    @Test
+    public void shouldLoadSortedElementsIntoMappedList() throws IOException {
+        final Integer[] EXPECTED = { 0, 0, 5, 8, 9, 12, 34, 41 };
+        final int MEMORY_BUDGET = 24 * 3;
+
+        Integer[] array = { 5, 8, 12, 34, 41, 0, 0, 9 };
+
+        ExternalSort<Integer> sort = new ExternalMergeSortImpl<>(INTEGER_CODEC, new QuickArraySortImpl<>(),
+                MEMORY_BUDGET, 2, spillDirectory);
+
+        try (CloseableList<Integer> list = sort.sortToList(Arrays.asList(array).iterator(), Integer::compare)) {
+            assertArrayEquals(EXPECTED, list.toArray());
+            assertEquals(34, (long) list.get(6));
+            assertEquals(4, list.indexOf(9));
+        }
+    }
+
+    @Test
+    public void shouldGetElementsBetweenSampledOffsetsOfMappedList() throws IOException {
+        final int SIZE = 1000;
+
+        ArrayList<Integer> input = new ArrayList<>();
+
+        for (int i = SIZE - 1; i >= 0; i--) {
+            input.add(i);
+        }
+
+        ExternalSort<Integer> sort = new ExternalMergeSortImpl<>(INTEGER_CODEC, new IncrementalMergeSortImpl<>(),
+                24 * 100, 4, spillDirectory);
+
+        try (CloseableList<Integer> list = sort.sortToList(input.iterator(), Integer::compare)) {
+            assertEquals(SIZE, list.size());
+            assertEquals(0, (long) list.get(0));
+            assertEquals(64, (long) list.get(64));
+            assertEquals(777, (long) list.get(777));
+            assertEquals(SIZE - 1, (long) list.get(SIZE - 1));
+            assertEquals(500, list.indexOf(500));
+        }
+
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void shouldRemoveSpilledRuns() throws IOException {
+        final int MEMORY_BUDGET = 24 * 2;
+
+        Integer[] array = { 5, 8, 12, 34, 41, 0, 0, 9 };
+
+        ExternalSort<Integer> sort = new ExternalMergeSortImpl<>(INTEGER_CODEC, new QuickArraySortImpl<>(),
+                MEMORY_BUDGET, 2, spillDirectory);
+
+        sort.sort(Arrays.asList(array).iterator(), Integer::compare, element -> {});
+
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void shouldThrowWhenNullElementIsSorted() {
+        Integer[] array = { 5, null, 12 };
+
+        ExternalSort<Integer> sort = new ExternalMergeSortImpl<>(INTEGER_CODEC, new QuickArraySortImpl<>(),
+                1024, 2, spillDirectory);
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            sort.sort(Arrays.asList(array).iterator(), Integer::compare, element -> {});
+        });
+    }
+
+    @Test
+    public void shouldThrowWhenFanInIsTooSmall() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new ExternalMergeSortImpl<>(INTEGER_CODEC, new QuickArraySortImpl<>(), 1024, 1, spillDirectory);
+        });
+    }
+
+    private static <E> ArraySort<E> decorate(ArraySort<E> delegate) {
+        return new ArraySort<E>() {
+            @Override
+            public E[] sort(Comparable<E>[] array) {
+                return delegate.sort(array);
+            }
+
+            @Override
+            public E[] sort(E[] array, Comparator<E> comparator) {
+                return delegate.sort(array, comparator);
+            }
+        };
+    }
+
+    private static <E> ArraySort<E> identity() {
+        return new ArraySort<E>() {
+            @Override
+            public E[] sort(Comparable<E>[] array) {
+                return (E[]) array;
+            }
+
+            @Override
+            public E[] sort(E[] array, Comparator<E> comparator) {
+                return array;
+            }
+        };
+    }
+}
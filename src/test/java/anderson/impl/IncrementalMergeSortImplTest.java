@@ -0,0 +1,129 @@
+package anderson.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+
+import anderson.api.IncrementalSort;
+import anderson.api.SortTask;
+
+public class IncrementalMergeSortImplTest {
+    @Test
+    public void shouldSortArrayOfComparables() {
+        final Integer[] EXPECTED = { 0, 0, 5, 8, 9, 12, 34, 41 };
+
+        Integer[] array = { 5, 8, 12, 34, 41, 0, 0, 9 };
+
+        IncrementalSort<Integer> sort = new IncrementalMergeSortImpl<>();
+
+        assertArrayEquals(EXPECTED, sort.sort(array));
+    }
+
+    @Test
+    public void shouldSortInBoundedSteps() {
+        final int SIZE = 10000;
+        final int BUDGET = 100;
+
+        Integer[] array = randomArray(SIZE);
+        Integer[] expected = array.clone();
+        Arrays.sort(expected);
+
+        SortTask<Integer> task = new IncrementalMergeSortImpl<Integer>().begin(array, Integer::compare);
+        double progress = task.getProgress();
+        int steps = 0;
+
+        while (task.step(BUDGET)) {
+            assertTrue(task.getProgress() >= progress);
+            progress = task.getProgress();
+            steps += 1;
+        }
+
+        assertTrue(steps > SIZE / BUDGET);
+        assertEquals(1.0, task.getProgress(), 0.0);
+        assertTrue(task.getResult().isDone());
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void shouldKeepEqualElementsInOriginalOrder() {
+        final String[] EXPECTED = { "a", "b", "c", "ee", "dd", "ff" };
+
+        String[] array = { "ee", "a", "dd", "b", "ff", "c" };
+
+        new IncrementalMergeSortImpl<String>().sort(array, (a, b) -> a.length() - b.length());
+
+        assertArrayEquals(EXPECTED, array);
+    }
+
+    @Test
+    public void shouldStopWhenCancelled() {
+        Integer[] array = randomArray(1000);
+
+        SortTask<Integer> task = new IncrementalMergeSortImpl<Integer>().begin(array, Integer::compare);
+
+        task.step(10);
+        task.cancel();
+
+        assertFalse(task.step(10));
+        assertTrue(task.isDone());
+        assertThrows(CancellationException.class, () -> {
+            task.getResult().join();
+        });
+    }
+
+    @Test
+    public void shouldSortOnExecutor() throws InterruptedException, ExecutionException, TimeoutException {
+        final int SIZE = 50000;
+
+        Integer[] array = randomArray(SIZE);
+        Integer[] expected = array.clone();
+        Arrays.sort(expected);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            SortTask<Integer> task = new IncrementalMergeSortImpl<Integer>()
+                    .sortAsync(array, Integer::compare, executor, 1000);
+
+            assertArrayEquals(expected, task.getResult().get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldSortOnDirectExecutorWithoutGrowingStack() {
+        final int SIZE = 200000;
+        final int BUDGET = 16;
+
+        Integer[] array = randomArray(SIZE);
+        Integer[] expected = array.clone();
+        Arrays.sort(expected);
+
+        SortTask<Integer> task = new IncrementalMergeSortImpl<Integer>()
+                .sortAsync(array, Integer::compare, Runnable::run, BUDGET);
+
+        assertTrue(task.getResult().isDone());
+        assertArrayEquals(expected, task.getResult().join());
+    }
+
+    private static Integer[] randomArray(int size) {
+        Random random = new Random(42);
+        Integer[] array = new Integer[size];
+
+        for (int i = 0; i < size; i++) {
+            array[i] = random.nextInt(size);
+        }
+
+        return array;
+    }
+}
@@ -0,0 +1,90 @@
+package anderson.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class ListPoolTest {
+    @Test
+    public void shouldRoundCapacityUpToCapacityClass() {
+        final int EXPECTED_CAPACITY = 32;
+
+        ListPool<Integer> pool = new ListPool<>();
+
+        assertEquals(EXPECTED_CAPACITY, pool.acquire(17).getCapacity());
+    }
+
+    @Test
+    public void shouldReuseReleasedList() {
+        ListPool<Integer> pool = new ListPool<>();
+
+        ArrayListImpl<Integer> list = pool.acquire(10);
+        list.add(5);
+        pool.release(list);
+
+        ArrayListImpl<Integer> reused = pool.acquire(10);
+
+        assertSame(list, reused);
+        assertEquals(0, reused.size());
+        assertEquals(1, pool.getHits());
+        assertEquals(1, pool.getMisses());
+    }
+
+    @Test
+    public void shouldRejectListReleasedTwice() {
+        ListPool<Integer> pool = new ListPool<>();
+
+        ArrayListImpl<Integer> list = pool.acquire(10);
+        pool.release(list);
+
+        assertThrows(IllegalStateException.class, () -> {
+            pool.release(list);
+        });
+        assertNotSame(pool.acquire(10), pool.acquire(10));
+    }
+
+    @Test
+    public void shouldAcceptReacquiredListAgain() {
+        ListPool<Integer> pool = new ListPool<>();
+
+        ArrayListImpl<Integer> list = pool.acquire(10);
+        pool.release(list);
+        pool.release(pool.acquire(10));
+
+        assertSame(list, pool.acquire(10));
+        assertEquals(2, pool.getHits());
+    }
+
+    @Test
+    public void shouldNotPoolListsLargerThanMaxCapacity() {
+        ListPool<Integer> pool = new ListPool<>(16, 64, 4);
+
+        ArrayListImpl<Integer> list = pool.acquire(100);
+        pool.release(list);
+
+        assertNotSame(list, pool.acquire(100));
+        assertEquals(0, pool.getHits());
+        assertEquals(2, pool.getMisses());
+    }
+
+    @Test
+    public void shouldKeepCachesPerThread() throws InterruptedException {
+        ListPool<Integer> pool = new ListPool<>();
+
+        pool.release(pool.acquire(16));
+
+        Thread thread = new Thread(() -> pool.acquire(16));
+        thread.start();
+        thread.join();
+
+        assertEquals(0, pool.getHits());
+        assertEquals(2, pool.getMisses());
+    }
+
+    @Test
+    public void shouldThrowWhenCapacityClassesAreNotPowersOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new ListPool<Integer>(10, 64, 4);
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package anderson.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import anderson.api.List;
+
+public class RoaringListImplTest {
+    @Test
+    public void shouldKeepElementsSortedAndUnique() {
+        final Integer[] EXPECTED_ARRAY = { -70000, 3, 5, 12, 65536, 200000 };
+
+        List<Integer> list = new RoaringListImpl();
+
+        list.add(12);
+        list.add(200000);
+        list.add(3);
+        list.add(-70000);
+        list.add(65536);
+        list.add(5);
+
+        assertFalse(list.add(12));
+        assertArrayEquals(EXPECTED_ARRAY, list.toArray());
+        assertEquals(EXPECTED_ARRAY.length, list.size());
+    }
+
+    @Test
+    public void shouldSelectAndRankDenseElements() {
+        final int SIZE = 200000;
+
+        RoaringListImpl list = new RoaringListImpl();
+
+        for (int i = 0; i < SIZE; i++) {
+            list.add(2 * i);
+        }
+
+        assertEquals(20000, (long) list.get(10000));
+        assertEquals(150000, list.indexOf(300000));
+        assertEquals(-1, list.indexOf(300001));
+        assertTrue(list.contains(399998));
+        assertFalse(list.contains(399999));
+    }
+
+    @Test
+    public void shouldCompressConsecutiveElementsIntoRuns() {
+        final int SIZE = 1000000;
+
+        RoaringListImpl list = new RoaringListImpl();
+
+        for (int i = 0; i < SIZE; i++) {
+            list.add(i);
+        }
+
+        list.runOptimize();
+
+        assertTrue(list.getSizeInBytes() < SIZE / 10);
+        assertEquals(SIZE - 1, (long) list.get(SIZE - 1));
+        assertEquals(654321, list.indexOf(654321));
+    }
+
+    @Test
+    public void shouldRemoveElements() {
+        final Integer[] EXPECTED_ARRAY = { 1, 3 };
+
+        RoaringListImpl list = new RoaringListImpl();
+
+        for (int i = 0; i < 5; i++) {
+            list.add(i);
+        }
+
+        list.runOptimize();
+
+        assertTrue(list.remove((Integer) 4));
+        assertFalse(list.remove((Integer) 4));
+        assertEquals(2, (long) list.remove(2));
+        assertEquals(0, (long) list.remove(0));
+
+        assertArrayEquals(EXPECTED_ARRAY, list.toArray());
+    }
+
+    @Test
+    public void shouldIntersectUniteAndSubtractLists() {
+        RoaringListImpl even = new RoaringListImpl();
+        RoaringListImpl range = new RoaringListImpl();
+
+        for (int i = 0; i < 20000; i++) {
+            even.add(2 * i);
+        }
+        for (int i = 10000; i < 50000; i++) {
+            range.add(i);
+        }
+
+        range.runOptimize();
+
+        RoaringListImpl and = even.and(range);
+        RoaringListImpl or = even.or(range);
+        RoaringListImpl andNot = even.andNot(range);
+
+        assertEquals(15000, and.size());
+        assertEquals(10000, (long) and.get(0));
+        assertEquals(45000, or.size());
+        assertEquals(5000, andNot.size());
+        assertFalse(andNot.contains(10000));
+        assertTrue(andNot.contains(9998));
+    }
+
+    @Test
+    public void shouldThrowWhenAddingAtPosition() {
+        List<Integer> list = new RoaringListImpl();
+
+        assertThrows(UnsupportedOperationException.class, () -> {
+            list.add(0, 5);
+        });
+    }
+}